@@ -0,0 +1,69 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.CodechellaApplication;
+import br.com.alura.codechella.UsuariosDeTeste;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Caminho completo de {@code POST /usuarios}: desserialização, validação, controller, serviço e INSERT
+ * no H2 em memória do perfil {@code test}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CadastroDeUsuarioBenchmark {
+
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private ConfigurableApplicationContext contexto;
+    private MockMvc mvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(CodechellaApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "logging.level.root=WARN")
+                // Mede o cadastro em si: o limite de taxa por cliente recusaria quase todas as chamadas do benchmark.
+                // Como argumento, e não em properties(), para prevalecer sobre o application.properties
+                .run("--codechella.limites.habilitado=false");
+        mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int cadastrar() throws Exception {
+        int n = sequencia.getAndIncrement();
+        String corpo = """
+                {"cpf":"%s","nome":"Usuário %d","nascimento":"1990-01-01","email":"usuario%d@example.com"}
+                """.formatted(UsuariosDeTeste.cpf(n), n, n);
+
+        return mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getStatus();
+    }
+}
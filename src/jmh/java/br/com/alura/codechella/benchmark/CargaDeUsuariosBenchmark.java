@@ -0,0 +1,85 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.CodechellaApplication;
+import br.com.alura.codechella.UsuariosDeTeste;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de carga de {@code POST /usuarios} e {@code GET /usuarios} contra o Tomcat real, com 256 clientes
+ * concorrentes, nos modos de thread de plataforma e de virtual threads. Cada modo sobe em um fork próprio.
+ * <p>
+ * Em Java 17 o modo {@code virtual} roda igual ao de plataforma, pois o Spring só ativa virtual threads em
+ * Java 21: rode com {@code ./mvnw -Pjmh,java21 clean test-compile exec:exec -Djmh.args="CargaDeUsuarios"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(256)
+public class CargaDeUsuariosBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    private String modo;
+
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private URI usuarios;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var aplicacao = new SpringApplicationBuilder(CodechellaApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN");
+        aplicacao.profiles(modo.equals("virtual") ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+        // Mede a capacidade do servidor: o limite de taxa por cliente recusaria quase todas as chamadas do benchmark.
+        // Como argumento, e não em properties(), para prevalecer sobre o application.properties
+        contexto = aplicacao.run("--codechella.limites.habilitado=false");
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        usuarios = URI.create("http://localhost:" + porta + "/usuarios");
+        cliente = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int cadastrar() throws Exception {
+        int n = sequencia.getAndIncrement();
+        String corpo = """
+                {"cpf":"%s","nome":"Usuário %d","nascimento":"1990-01-01","email":"carga%d@example.com"}
+                """.formatted(UsuariosDeTeste.cpf(n), n, n);
+        var requisicao = HttpRequest.newBuilder(usuarios)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int listar() throws Exception {
+        var requisicao = HttpRequest.newBuilder(usuarios).GET().build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.UsuariosDeTeste;
+import br.com.alura.codechella.service.DiretorioDeCpfs;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check-in por CPF entre {@code usuarios} cadastrados: o {@link DiretorioDeCpfs}, no heap e fora dele, contra um
+ * {@code HashMap<String, Long>}, que guarda um {@code String}, um {@code Long} e um nó por usuário.
+ * Com {@code -prof gc} a coluna de alocação mostra o que cada consulta deixa para o coletor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DiretorioDeCpfsBenchmark {
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    @Param({"heap", "fora-do-heap", "hashmap"})
+    private String estrutura;
+
+    private String[] consultas;
+    private DiretorioDeCpfs diretorio;
+    private Map<String, Long> mapa;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        consultas = new String[usuarios];
+        // Todas as consultas encontram o CPF: o repositório, só usado para ausentes, não é necessário
+        diretorio = new DiretorioDeCpfs(null, usuarios, "fora-do-heap".equals(estrutura), 1024, Duration.ZERO,
+                new SimpleMeterRegistry());
+        mapa = new HashMap<>();
+        for (int n = 0; n < usuarios; n++) {
+            String cpf = UsuariosDeTeste.cpf(n);
+            if ("hashmap".equals(estrutura)) mapa.put(cpf, n + 1L);
+            else diretorio.registrar(cpf, n + 1L);
+        }
+        // Como o CPF lido na catraca: outra instância, com os próprios bytes, longe das entradas do mapa
+        for (int n = 0; n < usuarios; n++) consultas[n] = new String(UsuariosDeTeste.cpf(n).toCharArray());
+    }
+
+    @Benchmark
+    public long checkIn() {
+        String cpf = consultas[ThreadLocalRandom.current().nextInt(usuarios)];
+        return "hashmap".equals(estrutura) ? mapa.get(cpf) : diretorio.buscarId(cpf).getAsLong();
+    }
+}
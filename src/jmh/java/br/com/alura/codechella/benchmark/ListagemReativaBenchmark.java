@@ -0,0 +1,90 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.CodechellaApplication;
+import br.com.alura.codechella.UsuariosDeTeste;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@code GET /usuarios} no Spring MVC (Tomcat + JPA) e no WebFlux (Netty + R2DBC), lado a lado. Cada operação
+ * dispara {@code clientes} requisições simultâneas e espera todas: acima das 200 threads do Tomcat o MVC enfileira,
+ * enquanto o event loop atende todas as conexões. Os clientes leem a resposta na velocidade da rede local, então
+ * o benchmark mede capacidade de concorrência, não o efeito de clientes lentos.
+ * <p>
+ * {@code ./mvnw -Pjmh clean test-compile exec:exec -Djmh.args="ListagemReativa -f 1 -wi 3 -i 5"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListagemReativaBenchmark {
+
+    @Param({"mvc", "webflux"})
+    private String pilha;
+
+    @Param({"256", "2048"})
+    private int clientes;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private HttpRequest listagem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var aplicacao = new SpringApplicationBuilder(CodechellaApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN");
+        aplicacao.profiles(pilha.equals("webflux") ? new String[]{"test", "leitura-reativa"} : new String[]{"test"});
+        // Mede a capacidade do servidor: o limite de taxa por cliente recusaria quase todas as chamadas do benchmark.
+        // Como argumento, e não em properties(), para prevalecer sobre o application.properties
+        contexto = aplicacao.run("--codechella.limites.habilitado=false");
+        contexto.getBean(UsuarioRepository.class)
+                .saveAll(IntStream.range(0, 5000).mapToObj(UsuariosDeTeste::usuario).toList());
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        listagem = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/usuarios?tamanho=50"))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long listarComClientesSimultaneos() {
+        CompletableFuture<?>[] respostas = new CompletableFuture<?>[clientes];
+        for (int i = 0; i < clientes; i++)
+            respostas[i] = cliente.sendAsync(listagem, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture.allOf(respostas).join();
+
+        long bytes = 0;
+        for (CompletableFuture<?> resposta : respostas) {
+            var corpo = (HttpResponse<?>) resposta.join();
+            if (corpo.statusCode() != 200) throw new IllegalStateException("Status " + corpo.statusCode());
+            bytes += ((byte[]) corpo.body()).length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.infra.sql.MonitorDeConsultasLentas;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma consulta por chave primária no H2 em memória, rápida o bastante para nunca passar do limite: o custo do
+ * {@link MonitorDeConsultasLentas} por comando, com a conexão direta do driver como referência.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MonitorDeConsultasLentasBenchmark {
+
+    @Param({"direto", "monitorado"})
+    private String conexao;
+
+    private Connection conectada;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:benchmark-consultas-lentas;DB_CLOSE_DELAY=-1");
+        DataSource dataSource = "monitorado".equals(conexao) ? new MonitorDeConsultasLentas(500, 1.0).envolver(h2) : h2;
+        conectada = dataSource.getConnection();
+        try (var comando = conectada.createStatement()) {
+            comando.execute("create table if not exists itens (id int primary key, nome varchar(20))");
+            comando.execute("merge into itens select x, 'item ' || x from system_range(1, 1000)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException {
+        conectada.close();
+    }
+
+    @Benchmark
+    public String consultarPorId() throws SQLException {
+        try (PreparedStatement comando = conectada.prepareStatement("select nome from itens where id = ?")) {
+            comando.setInt(1, ThreadLocalRandom.current().nextInt(1, 1001));
+            try (ResultSet linhas = comando.executeQuery()) {
+                linhas.next();
+                return linhas.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construção e validação da entidade de domínio {@link Usuario}, direta e pela {@link FabricaDeUsuario}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioDominioBenchmark {
+
+    private String nome = "Maria Oliveira";
+    private String cpf = "529.982.247-25";
+    private LocalDate nascimento = LocalDate.of(1985, 8, 15);
+    private String email = "maria.oliveira@example.com";
+
+    @Benchmark
+    public Usuario construirUsuario() {
+        return new Usuario(cpf, nome, nascimento, email);
+    }
+
+    @Benchmark
+    public Usuario fabricarUsuarioComEndereco() {
+        FabricaDeUsuario fabrica = new FabricaDeUsuario();
+        fabrica.comNomeCpfNascimentoEmail(nome, cpf, nascimento, email);
+        return fabrica.incluiEndereco("01310-100", 1578, "Apto 42");
+    }
+}
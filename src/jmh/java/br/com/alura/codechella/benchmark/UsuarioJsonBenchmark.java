@@ -0,0 +1,69 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialização do modelo JPA {@link Usuario} em JSON, CBOR e Smile, com os mapeadores configurados como os da
+ * aplicação (ver {@code FormatosBinariosConfig}): datas em texto ISO no JSON e como {@code [ano, mês, dia]} nos
+ * formatos binários.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioJsonBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    private ObjectWriter escritor;
+    private ObjectReader leitor;
+    private Usuario usuario;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = switch (formato) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        };
+        escritor = mapper.writerFor(Usuario.class);
+        leitor = mapper.readerFor(Usuario.class);
+
+        usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setCpf("529.982.247-25");
+        usuario.setNome("Maria Oliveira");
+        usuario.setNascimento(LocalDate.of(1985, 8, 15));
+        usuario.setEmail("maria.oliveira@example.com");
+        json = escritor.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws Exception {
+        return escritor.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public Usuario desserializar() throws Exception {
+        return leitor.readValue(json);
+    }
+}
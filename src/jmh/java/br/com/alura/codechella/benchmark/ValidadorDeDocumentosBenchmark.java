@@ -0,0 +1,55 @@
+package br.com.alura.codechella.benchmark;
+
+import br.com.alura.codechella.domain.entities.usuario.ValidadorDeDocumentos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara as validações de {@link ValidadorDeDocumentos} com as chamadas a {@code String.matches}
+ * que a entidade de domínio usava antes, e que recompilavam a expressão regular a cada validação.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidadorDeDocumentosBenchmark {
+
+    private String cpf = "529.982.247-25";
+    private String cep = "01310-100";
+    private String email = "maria.oliveira@example.com";
+
+    @Benchmark
+    public boolean cpfComStringMatches() {
+        return cpf.matches("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}");
+    }
+
+    @Benchmark
+    public boolean cpfComValidador() {
+        return ValidadorDeDocumentos.isCpfValido(cpf);
+    }
+
+    @Benchmark
+    public boolean cepComStringMatches() {
+        return cep.matches("\\d{5}-\\d{3}");
+    }
+
+    @Benchmark
+    public boolean cepComValidador() {
+        return ValidadorDeDocumentos.isCepValido(cep);
+    }
+
+    @Benchmark
+    public boolean emailComStringMatches() {
+        return email.matches("^[\\w.-]+@[\\w.-]+\\.[A-Za-z]{2,6}$");
+    }
+
+    @Benchmark
+    public boolean emailComValidador() {
+        return ValidadorDeDocumentos.isEmailValido(email);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.alura.codechella.application.gateways;
+
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+
+public interface RepositorioDeUsuario {
+
+    Usuario cadastrarUsuario(Usuario usuario);
+
+    PaginaPorCursor<Usuario> listarPorCursor(String cursor, int tamanho);
+}
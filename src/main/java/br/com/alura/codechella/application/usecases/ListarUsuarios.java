@@ -0,0 +1,18 @@
+package br.com.alura.codechella.application.usecases;
+
+import br.com.alura.codechella.application.gateways.RepositorioDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+
+public class ListarUsuarios {
+
+    private final RepositorioDeUsuario repositorio;
+
+    public ListarUsuarios(RepositorioDeUsuario repositorio) {
+        this.repositorio = repositorio;
+    }
+
+    public PaginaPorCursor<Usuario> listarPorCursor(String cursor, int tamanho) {
+        return repositorio.listarPorCursor(cursor, tamanho);
+    }
+}
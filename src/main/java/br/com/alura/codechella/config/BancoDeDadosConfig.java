@@ -0,0 +1,24 @@
+package br.com.alura.codechella.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pool JDBC do JPA e do Flyway. O Spring Boot deixa de criá-lo sozinho quando existe um {@code ConnectionFactory}
+ * do R2DBC (usado pela leitura reativa), então ele é declarado aqui com as mesmas propriedades
+ * {@code spring.datasource.*} e {@code spring.datasource.hikari.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class BancoDeDadosConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
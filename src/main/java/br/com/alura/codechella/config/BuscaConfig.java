@@ -0,0 +1,23 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.repository.UsuarioRepository;
+import br.com.alura.codechella.service.BuscaDeUsuarios;
+import br.com.alura.codechella.service.BuscaDeUsuariosEmMemoria;
+import br.com.alura.codechella.service.BuscaDeUsuariosPostgres;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@Configuration
+public class BuscaConfig {
+
+    @Bean
+    BuscaDeUsuarios buscaDeUsuarios(@Value("${spring.datasource.url:}") String url,
+                                    NamedParameterJdbcTemplate jdbc,
+                                    UsuarioRepository repository) {
+        if (DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL) return new BuscaDeUsuariosPostgres(jdbc);
+        return new BuscaDeUsuariosEmMemoria(repository);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.infra.sql.MonitorDeConsultasLentas;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty("codechella.consultas-lentas.limite-ms")
+public class ConsultasLentasConfig {
+
+    // O pool continua alcançável por unwrap, que é como o Actuator e as métricas do Hikari o encontram
+    @Bean
+    static BeanPostProcessor monitorDeConsultasLentas(Environment environment) {
+        var monitor = new MonitorDeConsultasLentas(
+                environment.getRequiredProperty("codechella.consultas-lentas.limite-ms", Long.class),
+                environment.getProperty("codechella.consultas-lentas.amostragem", Double.class, 1.0));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource))
+                    return monitor.envolver(dataSource);
+                return bean;
+            }
+        };
+    }
+}
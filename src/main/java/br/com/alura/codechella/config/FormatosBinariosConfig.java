@@ -0,0 +1,87 @@
+package br.com.alura.codechella.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * CBOR ({@code application/cbor}) e Smile ({@code application/x-jackson-smile}) ao lado do JSON, escolhidos pelo
+ * {@code Accept} e pelo {@code Content-Type}. Os mapeadores partem do mesmo builder do JSON, então as anotações e
+ * módulos do Jackson valem igual e os campos mantêm os nomes do JSON: um cliente pode trocar de formato sem mudar
+ * o modelo. A única diferença são as datas, escritas como {@code [ano, mês, dia]} em vez do texto ISO.
+ */
+@Configuration
+public class FormatosBinariosConfig {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter conversorCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(mapeador(builder, new CBORFactory()));
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter conversorSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(mapeador(builder, new SmileFactory()));
+    }
+
+    // Mesmos formatos no perfil leitura-reativa, que usa codecs do WebFlux em vez de conversores
+    @Bean
+    CodecCustomizer codecsBinarios(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cbor = mapeador(builder, new CBORFactory());
+        ObjectMapper smile = mapeador(builder, new SmileFactory());
+        return configurer -> {
+            configurer.customCodecs().register(new CodificadorCbor(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smile, SMILE));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smile, SMILE));
+        };
+    }
+
+    /**
+     * O {@link Jackson2CborEncoder} do Spring 6.1 recusa qualquer {@link Publisher}, até um {@link Mono}; aqui o
+     * valor único é codificado inteiro. Um {@code Flux} continua sem suporte, como no original.
+     */
+    private static class CodificadorCbor extends Jackson2CborEncoder {
+
+        CodificadorCbor(ObjectMapper mapeador) {
+            super(mapeador, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> entrada, DataBufferFactory buffers, ResolvableType tipo,
+                                       MimeType formato, Map<String, Object> dicas) {
+            if (entrada instanceof Mono<?> valor)
+                return valor.map(v -> encodeValue(v, buffers, tipo, formato, dicas)).flux();
+            return super.encode(entrada, buffers, tipo, formato, dicas);
+        }
+    }
+
+    private static ObjectMapper mapeador(Jackson2ObjectMapperBuilder builder, JsonFactory formato) {
+        return builder.factory(formato)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
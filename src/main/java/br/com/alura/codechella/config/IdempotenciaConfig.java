@@ -0,0 +1,46 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.infra.idempotencia.ArmazemDeIdempotencia;
+import br.com.alura.codechella.infra.idempotencia.ArmazemDeIdempotenciaEmMemoria;
+import br.com.alura.codechella.infra.idempotencia.ArmazemDeIdempotenciaJdbc;
+import br.com.alura.codechella.infra.idempotencia.RequisicoesIdempotentes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotenciaConfig {
+
+    // Os mesmos conversores do MVC, para guardar o corpo no formato negociado; no perfil reativo não há nenhum
+    @Bean
+    RequisicoesIdempotentes requisicoesIdempotentes(ArmazemDeIdempotencia armazem, ObjectMapper objectMapper,
+                                                    ObjectProvider<HttpMessageConverters> conversores) {
+        return new RequisicoesIdempotentes(armazem, objectMapper, conversores.stream()
+                .flatMap(c -> c.getConverters().stream())
+                .toList());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "codechella.idempotencia.armazem", havingValue = "memoria", matchIfMissing = true)
+    ArmazemDeIdempotencia armazemDeIdempotenciaEmMemoria(@Value("${codechella.idempotencia.capacidade:100000}") int capacidade,
+                                                         @Value("${codechella.idempotencia.validade:24h}") Duration validade,
+                                                         @Value("${codechella.idempotencia.prazo-da-reserva:30s}") Duration prazoDaReserva) {
+        return new ArmazemDeIdempotenciaEmMemoria(capacidade, validade, prazoDaReserva);
+    }
+
+    // Com várias instâncias atrás do balanceador, a retentativa pode cair em outra: a chave precisa estar no banco
+    @Bean
+    @ConditionalOnProperty(name = "codechella.idempotencia.armazem", havingValue = "banco")
+    ArmazemDeIdempotencia armazemDeIdempotenciaJdbc(JdbcTemplate jdbc,
+                                                    @Value("${codechella.idempotencia.validade:24h}") Duration validade,
+                                                    @Value("${codechella.idempotencia.prazo-da-reserva:30s}") Duration prazoDaReserva) {
+        return new ArmazemDeIdempotenciaJdbc(jdbc, validade, prazoDaReserva);
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.dto.ResultadoDaImportacao;
+import br.com.alura.codechella.service.ImportadorDeCsv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Com {@code --codechella.importacao.arquivo=<csv>}, importa o arquivo assim que a aplicação sobe, depois do
+ * aquecimento do detector de duplicidade. O relatório de rejeitadas vai para {@code codechella.importacao.relatorio}
+ * ou, sem ele, para {@code <csv>.rejeitados.csv}. A propriedade é lida na subida, e não numa condição da
+ * configuração, para valer também no build AOT.
+ */
+@Configuration
+public class ImportacaoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoConfig.class);
+
+    private final Environment environment;
+    private final ImportadorDeCsv importador;
+
+    public ImportacaoConfig(Environment environment, ImportadorDeCsv importador) {
+        this.environment = environment;
+        this.importador = importador;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void importarNaSubida() throws IOException {
+        String arquivo = environment.getProperty("codechella.importacao.arquivo", "");
+        if (arquivo.isBlank()) return;
+
+        Path origem = Path.of(arquivo);
+        Path relatorio = Path.of(environment.getProperty("codechella.importacao.relatorio", arquivo + ".rejeitados.csv"));
+        ResultadoDaImportacao resultado = importador.importar(origem, relatorio);
+        log.info("{}: {} linhas, {} cadastradas, {} rejeitadas (relatório em {}), {} linhas/s", origem, resultado.linhas(),
+                resultado.cadastrados(), resultado.rejeitados(), resultado.relatorio(), Math.round(resultado.linhasPorSegundo()));
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.alura.codechella.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LeituraReativaConfig {
+
+    // Com o Tomcat no classpath (pilha MVC) o Spring Boot o escolheria também para o WebFlux; o event loop é do Netty
+    @Bean
+    NettyReactiveWebServerFactory servidorReativo() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.infra.limites.LimitesInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "codechella.limites.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimitesConfig implements WebMvcConfigurer {
+
+    private final Environment environment;
+    private final MeterRegistry registry;
+
+    public LimitesConfig(Environment environment, MeterRegistry registry) {
+        this.environment = environment;
+        this.registry = registry;
+    }
+
+    // Primeiro da cadeia: a requisição recusada não chega a custar nada às demais etapas
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new LimitesInterceptor(environment, registry))
+                .addPathPatterns("/usuarios/**", "/usuarios")
+                .order(Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.infra.metricas.MetricasDeConsultasInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry registry;
+
+    public MetricasConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    TimedAspect timedAspect() {
+        return new TimedAspect(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new MetricasDeConsultasInterceptor(registry)).addPathPatterns("/usuarios/**");
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.infra.replicas.ReplicasDeLeitura;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Com {@code codechella.replicas.urls}, o {@code dataSource} passa a entregar conexões sob demanda: a transação
+ * marcada como somente leitura ({@code @Transactional(readOnly = true)}) recebe a conexão de uma
+ * {@link ReplicasDeLeitura}, e as demais, inclusive o Flyway, continuam no primário.
+ */
+@Configuration
+@ConditionalOnProperty("codechella.replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    ReplicasDeLeitura replicasDeLeitura(Environment environment, MeterRegistry registry) {
+        List<String> urls = Arrays.stream(environment.getRequiredProperty("codechella.replicas.urls", String[].class))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        List<DataSource> pools = IntStream.range(0, urls.size()).<DataSource>mapToObj(i -> pool(environment, i, urls.get(i))).toList();
+        return new ReplicasDeLeitura(pools,
+                environment.getProperty("codechella.replicas.atraso-maximo", Duration.class, Duration.ofSeconds(5)),
+                environment.getProperty("codechella.replicas.consulta-de-atraso", ""),
+                environment.getProperty("codechella.replicas.intervalo-de-verificacao", Duration.class, Duration.ofSeconds(5)),
+                registry);
+    }
+
+    // Antes do monitor de consultas lentas, que assim envolve também as leituras nas réplicas
+    @Bean
+    static BeanPostProcessor roteamentoParaReplicas(ObjectProvider<ReplicasDeLeitura> replicas) {
+        return new RoteamentoParaReplicas(replicas);
+    }
+
+    private static HikariDataSource pool(Environment environment, int indice, String url) {
+        var pool = new HikariDataSource();
+        pool.setPoolName("replica-" + indice);
+        pool.setJdbcUrl(url);
+        pool.setUsername(environment.getProperty("codechella.replicas.usuario", environment.getProperty("spring.datasource.username")));
+        pool.setPassword(environment.getProperty("codechella.replicas.senha", environment.getProperty("spring.datasource.password")));
+        pool.setMaximumPoolSize(environment.getProperty("codechella.replicas.tamanho-do-pool", Integer.class, 20));
+        // Réplica fora do ar não impede a subida nem segura a leitura: o rodízio a descarta e a leitura vai ao primário
+        pool.setInitializationFailTimeout(-1);
+        pool.setConnectionTimeout(environment.getProperty("codechella.replicas.tempo-limite-de-conexao", Duration.class,
+                Duration.ofSeconds(2)).toMillis());
+        return pool;
+    }
+
+    private record RoteamentoParaReplicas(ObjectProvider<ReplicasDeLeitura> replicas) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primario)) return bean;
+            // Adiada até o primeiro comando, a conexão já sabe se a transação é somente leitura
+            var roteador = new LazyConnectionDataSourceProxy(primario);
+            roteador.setReadOnlyDataSource(replicas.getObject().comReservaNo(primario));
+            return roteador;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.alura.codechella.config;
+
+import br.com.alura.codechella.application.gateways.RepositorioDeUsuario;
+import br.com.alura.codechella.application.usecases.CriarUsuario;
+import br.com.alura.codechella.application.usecases.ListarUsuarios;
+import br.com.alura.codechella.infra.gateways.RepositorioDeUsuarioJpa;
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.service.UsuarioService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UsuarioConfig {
+
+    @Bean
+    CriarUsuario criarUsuario(RepositorioDeUsuario repositorioDeUsuario) {
+        return new CriarUsuario(repositorioDeUsuario);
+    }
+
+    @Bean
+    ListarUsuarios listarUsuarios(RepositorioDeUsuario repositorioDeUsuario) {
+        return new ListarUsuarios(repositorioDeUsuario);
+    }
+
+    @Bean
+    RepositorioDeUsuarioJpa repositorioDeUsuarioJpa(UsuarioService service, UsuarioEntityMapper mapper) {
+        return new RepositorioDeUsuarioJpa(service, mapper);
+    }
+
+    @Bean
+    UsuarioEntityMapper usuarioEntityMapper() {
+        return new UsuarioEntityMapper();
+    }
+}
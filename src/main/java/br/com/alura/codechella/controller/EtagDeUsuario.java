@@ -0,0 +1,116 @@
+package br.com.alura.codechella.controller;
+
+import br.com.alura.codechella.domain.entities.usuario.Endereco;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ETags fracos calculados do que a própria resposta já carregou (o usuário, vindo do cache ou da única consulta,
+ * ou o conteúdo da página), para que o GET condicional responda 304 sem serializar nem consultar a versão à parte.
+ * O formato negociado pelo {@code Accept} entra no ETag: o JSON e o CBOR do mesmo usuário são representações
+ * diferentes, e um cache que guardou uma não pode validar a outra.
+ */
+final class EtagDeUsuario {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private EtagDeUsuario() {
+    }
+
+    static String doUsuario(Long id, Long versao, String formato) {
+        return "W/\"" + id + "-" + versao + "-" + formato + "\"";
+    }
+
+    /**
+     * Qual dos formatos da API o {@code Accept} escolhe, na ordem da negociação do MVC; curingas ficam com o JSON.
+     *
+     * @return {@code json}, {@code cbor} ou {@code smile}.
+     */
+    static String formato(String accept) {
+        if (accept == null || accept.isBlank()) return "json";
+        List<MediaType> tipos;
+        try {
+            tipos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(tipos);
+        for (MediaType tipo : tipos) {
+            if (tipo.isCompatibleWith(MediaType.APPLICATION_JSON)) return "json";
+            if (tipo.isCompatibleWith(MediaType.APPLICATION_CBOR)) return "cbor";
+            if (tipo.isCompatibleWith(SMILE)) return "smile";
+        }
+        return "json";
+    }
+
+    /**
+     * @return A data de atualização em milissegundos, ou -1 se não for conhecida.
+     */
+    static long ultimaAlteracao(Instant atualizadoEm) {
+        return atualizadoEm == null ? -1 : atualizadoEm.toEpochMilli();
+    }
+
+    /**
+     * Extrai a versão de um {@code If-Match} no formato gerado por {@link #doUsuario}.
+     *
+     * @return A versão, {@code null} para {@code *} ou ausência do cabeçalho, ou -1 se o ETag for de outro
+     * usuário ou de outro formato, o que nunca corresponde à versão atual.
+     */
+    static Long versaoEsperada(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) return null;
+        String valor = ifMatch.strip();
+        if (valor.startsWith("W/")) valor = valor.substring(2);
+        String prefixo = "\"" + id + "-";
+        if (!valor.startsWith(prefixo) || !valor.endsWith("\"")) return -1L;
+        // A versão vale para qualquer formato: o sufixo só distingue as representações
+        String versao = valor.substring(prefixo.length(), valor.length() - 1);
+        int fimDaVersao = versao.indexOf('-');
+        try {
+            return Long.parseLong(fimDaVersao < 0 ? versao : versao.substring(0, fimDaVersao));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * A listagem devolve usuários do domínio, sem versão: o ETag vem dos campos de cada item e do próximo cursor,
+     * que também fazem parte da resposta.
+     *
+     * @param campos Campos pedidos em {@code fields}, pois mudam a representação da mesma página.
+     */
+    static String daPagina(PaginaPorCursor<?> pagina, Set<String> campos, String formato) {
+        long hash = FNV_OFFSET;
+        for (Object item : pagina.conteudo()) {
+            hash = misturar(hash, item instanceof Usuario usuario
+                    ? doConteudo(usuario) : Objects.hashCode(item));
+        }
+        hash = misturar(hash, Objects.hashCode(pagina.proximoCursor()));
+        hash = misturar(hash, campos == null ? 0 : campos.hashCode());
+        return "W/\"" + Long.toHexString(hash) + "-" + formato + "\"";
+    }
+
+    private static int doConteudo(Usuario usuario) {
+        Endereco endereco = usuario.getEndereco();
+        return Objects.hash(usuario.getId(), usuario.getCpf(), usuario.getNome(), usuario.getNascimento(),
+                usuario.getEmail(), endereco == null ? null : endereco.getCep(),
+                endereco == null ? null : endereco.getNumero(), endereco == null ? null : endereco.getComplemento());
+    }
+
+    private static long misturar(long hash, long valor) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (valor >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
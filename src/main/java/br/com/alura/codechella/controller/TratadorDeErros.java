@@ -0,0 +1,102 @@
+package br.com.alura.codechella.controller;
+
+import br.com.alura.codechella.domain.entities.usuario.UsuarioInvalidoException;
+import br.com.alura.codechella.infra.idempotencia.ChaveDeIdempotenciaEmUsoException;
+import br.com.alura.codechella.infra.idempotencia.ChaveDeIdempotenciaReutilizadaException;
+import br.com.alura.codechella.infra.limites.LimiteExcedidoException;
+import br.com.alura.codechella.infra.metricas.MetricasDeValidacao;
+import br.com.alura.codechella.infra.sql.ErrosDoBanco;
+import br.com.alura.codechella.service.ConflitoDeVersaoException;
+import br.com.alura.codechella.service.FilaDeCadastroCheiaException;
+import br.com.alura.codechella.service.UsuarioDuplicadoException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.stream.Collectors;
+
+@RestControllerAdvice
+public class TratadorDeErros {
+
+    @Autowired
+    private MetricasDeValidacao metricasDeValidacao;
+
+    // Só as recusas do domínio contam como falha de validação de cadastro; cursor, termo de busca e afins, não
+    @ExceptionHandler(UsuarioInvalidoException.class)
+    public ProblemDetail tratarUsuarioInvalido(UsuarioInvalidoException ex) {
+        metricasDeValidacao.registrarFalha(ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // Restrições do modelo verificadas antes de gravar, como o tamanho das colunas
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ProblemDetail tratarRestricaoDoModelo(ConstraintViolationException ex) {
+        ex.getConstraintViolations().forEach(v -> metricasDeValidacao.registrarFalha(v.getPropertyPath().toString()));
+        String violacoes = ex.getConstraintViolations().stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, violacoes);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail tratarArgumentoInvalido(IllegalArgumentException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(UsuarioDuplicadoException.class)
+    public ProblemDetail tratarUsuarioDuplicado(UsuarioDuplicadoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Corrida entre dois cadastros iguais que passaram juntos pela verificação: o índice único decide.
+    // As demais restrições do banco (nulos, tamanho das colunas) rejeitam dados, e não um duplicado
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail tratarViolacaoDeIntegridade(DataIntegrityViolationException ex) {
+        if (ErrosDoBanco.violouUnicidade(ex))
+            return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Usuário já cadastrado");
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Dados fora das restrições do cadastro");
+    }
+
+    @ExceptionHandler(ConflitoDeVersaoException.class)
+    public ProblemDetail tratarConflitoDeVersao(ConflitoDeVersaoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    // Alterações simultâneas que continuaram em conflito mesmo após as novas tentativas
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail tratarConflitoPersistente(OptimisticLockingFailureException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Usuário alterado simultaneamente; tente novamente");
+    }
+
+    @ExceptionHandler(ChaveDeIdempotenciaEmUsoException.class)
+    public ProblemDetail tratarChaveEmUso(ChaveDeIdempotenciaEmUsoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(ChaveDeIdempotenciaReutilizadaException.class)
+    public ProblemDetail tratarChaveReutilizada(ChaveDeIdempotenciaReutilizadaException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(FilaDeCadastroCheiaException.class)
+    public ResponseEntity<ProblemDetail> tratarFilaCheia(FilaDeCadastroCheiaException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<ProblemDetail> tratarLimiteExcedido(LimiteExcedidoException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getEsperaEmSegundos()))
+                .body(ProblemDetail.forStatusAndDetail(ex.getStatus(), ex.getMessage()));
+    }
+}
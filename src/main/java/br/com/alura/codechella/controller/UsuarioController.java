@@ -1,39 +1,202 @@
 package br.com.alura.codechella.controller;
 
+import br.com.alura.codechella.application.usecases.CriarUsuario;
+import br.com.alura.codechella.application.usecases.ListarUsuarios;
+import br.com.alura.codechella.dto.AlteracaoDeUsuario;
+import br.com.alura.codechella.dto.CheckIn;
+import br.com.alura.codechella.dto.PaginaDaBusca;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.dto.ResultadoDoLote;
+import br.com.alura.codechella.dto.StatusDoCadastro;
+import br.com.alura.codechella.dto.UsuarioDto;
 import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.infra.idempotencia.RequisicoesIdempotentes;
+import br.com.alura.codechella.service.BuscaDeUsuarios;
+import br.com.alura.codechella.service.DiretorioDeCpfs;
+import br.com.alura.codechella.service.ExportadorDeUsuarios;
+import br.com.alura.codechella.service.FilaDeCadastro;
+import br.com.alura.codechella.service.ImportadorDeUsuarios;
 import br.com.alura.codechella.service.UsuarioService;
-import jakarta.validation.Valid;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/usuarios")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UsuarioController {
 
     @Autowired
     private UsuarioService service;
 
+    @Autowired
+    private CriarUsuario criarUsuario;
+
+    @Autowired
+    private ListarUsuarios listarUsuarios;
+
+    @Autowired
+    private ExportadorDeUsuarios exportador;
+
+    @Autowired
+    private ImportadorDeUsuarios importador;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BuscaDeUsuarios busca;
+
+    @Autowired
+    private DiretorioDeCpfs diretorioDeCpfs;
+
+    @Autowired
+    private RequisicoesIdempotentes requisicoesIdempotentes;
+
+    // Presente só com codechella.cadastro-assincrono.habilitado=true
+    @Autowired(required = false)
+    private FilaDeCadastro filaDeCadastro;
+
+    // Retentativas com a mesma Idempotency-Key recebem a resposta original, sem novo cadastro
     @PostMapping
-    @Transactional
-    public ResponseEntity cadastrar(@RequestBody @Valid Usuario usuario, UriComponentsBuilder uriBuilder) {
-        service.cadastrarUsuario(usuario);
+    public ResponseEntity<?> cadastrar(@RequestBody UsuarioDto dto, UriComponentsBuilder uriBuilder,
+                                       @RequestHeader(name = RequisicoesIdempotentes.CABECALHO, required = false) String chave,
+                                       @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        return requisicoesIdempotentes.executar(chave, accept, dto, () -> cadastrar(dto, uriBuilder));
+    }
+
+    private ResponseEntity<?> cadastrar(UsuarioDto dto, UriComponentsBuilder uriBuilder) {
+        var usuario = dto.paraDominio();
+        if (filaDeCadastro != null) {
+            var status = filaDeCadastro.enfileirar(usuario);
+            var uri = uriBuilder.path("/usuarios/cadastros/{protocolo}").buildAndExpand(status.protocolo()).toUri();
+            return ResponseEntity.accepted().location(uri).body(status);
+        }
+
+        criarUsuario.cadastrarUsuario(usuario);
         var uri = uriBuilder.path("/usuarios/{id}").buildAndExpand(usuario.getId()).toUri();
 
         return ResponseEntity.created(uri).body(usuario);
     }
 
+    // Com If-Match, a alteração só é aplicada sobre a versão que o cliente leu (412 se mudou)
+    @PatchMapping("/{id}")
+    public ResponseEntity<Usuario> alterar(@PathVariable Long id, @RequestBody AlteracaoDeUsuario alteracao,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.alterarUsuario(id, EtagDeUsuario.versaoEsperada(ifMatch, id), alteracao)
+                .map(usuario -> ResponseEntity.ok()
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .eTag(EtagDeUsuario.doUsuario(usuario.getId(), usuario.getVersao(), EtagDeUsuario.formato(accept)))
+                        .body(usuario))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cadastros/{protocolo}")
+    public ResponseEntity<StatusDoCadastro> situacaoDoCadastro(@PathVariable UUID protocolo) {
+        if (filaDeCadastro == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.of(filaDeCadastro.situacao(protocolo));
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoDoLote> cadastrarEmLote(InputStream corpo) throws IOException {
+        // Lê um array JSON ou uma sequência NDJSON item a item, sem carregar o corpo inteiro em memória
+        try (MappingIterator<Usuario> usuarios = objectMapper.readerFor(Usuario.class).readValues(corpo)) {
+            return ResponseEntity.ok(importador.cadastrarEmLote(usuarios));
+        }
+    }
+
+    // Com fields=id,nome,email a resposta traz só essas colunas, lidas sem carregar entidades
     @GetMapping
-    public ResponseEntity<List<Usuario>> listar() {
-        return ResponseEntity.ok(service.listarTodos());
+    public ResponseEntity<PaginaPorCursor<?>> listar(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int tamanho,
+                                                     @RequestParam(name = "fields", required = false) Set<String> campos,
+                                                     WebRequest requisicao, HttpServletResponse resposta) {
+        PaginaPorCursor<?> pagina = campos != null && !campos.isEmpty()
+                ? service.listarCamposPorCursor(cursor, tamanho, campos)
+                : listarUsuarios.listarPorCursor(cursor, tamanho);
+        // Página inalterada desde o último GET do cliente: 304 sem serializar, com a mesma consulta da resposta
+        resposta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String formato = EtagDeUsuario.formato(requisicao.getHeader(HttpHeaders.ACCEPT));
+        if (requisicao.checkNotModified(EtagDeUsuario.daPagina(pagina, campos, formato))) return null;
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaDaBusca> buscar(@RequestParam("q") String termo,
+                                                @RequestParam(defaultValue = "0") int pagina,
+                                                @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(busca.buscar(termo, pagina, tamanho));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Usuario> detalhar(@PathVariable Long id, WebRequest requisicao, HttpServletResponse resposta) {
+        // Versão do próprio usuário em cache, atualizado por cadastros e alterações: sem consulta à parte
+        var usuario = service.buscarPorId(id);
+        if (usuario.isEmpty()) return ResponseEntity.notFound().build();
+        // Vary também no 304, que o MVC escreve direto na resposta
+        resposta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = EtagDeUsuario.doUsuario(id, usuario.get().getVersao(),
+                EtagDeUsuario.formato(requisicao.getHeader(HttpHeaders.ACCEPT)));
+        if (requisicao.checkNotModified(etag, EtagDeUsuario.ultimaAlteracao(usuario.get().getAtualizadoEm()))) return null;
+
+        return ResponseEntity.ok(usuario.get());
+    }
+
+    @GetMapping("/cpf/{cpf}")
+    public ResponseEntity<Usuario> detalharPorCpf(@PathVariable String cpf) {
+        return ResponseEntity.of(service.buscarPorCpf(cpf));
+    }
+
+    // Catracas do festival: responde da memória, sem carregar o usuário; só CPFs fora do diretório vão ao banco
+    @GetMapping("/check-in/{cpf}")
+    public ResponseEntity<CheckIn> checkIn(@PathVariable String cpf) {
+        var id = diretorioDeCpfs.buscarId(cpf);
+        return id.isPresent() ? ResponseEntity.ok(new CheckIn(id.getAsLong())) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<Page<Usuario>> listarPagina(@PageableDefault(sort = "id", direction = Sort.Direction.ASC) Pageable paginacao) {
+        return ResponseEntity.ok(service.listarPagina(paginacao));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "false") boolean gzip) {
+        if (!gzip) return ResponseEntity.ok().body(exportador::exportarNdjson);
+
+        StreamingResponseBody corpo = saida -> {
+            var compactado = new GZIPOutputStream(saida, 8192, true);
+            exportador.exportarNdjson(compactado);
+            compactado.finish();
+        };
+        return ResponseEntity.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip").body(corpo);
     }
 
 }
@@ -0,0 +1,40 @@
+package br.com.alura.codechella.controller;
+
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.service.UsuarioServiceReativo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Listagem de usuários no WebFlux, ativa só com o perfil {@code leitura-reativa}. Poucas threads do event loop
+ * atendem milhares de conexões lentas, porque nenhuma delas espera pelo banco ou pelo cliente.
+ */
+@RestController
+@RequestMapping("/usuarios")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioControllerReativo {
+
+    @Autowired
+    private UsuarioServiceReativo service;
+
+    // Mesmo contrato do GET /usuarios do Spring MVC: o balanceador pode mandar a leitura para qualquer uma das pilhas
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public Mono<PaginaPorCursor<Usuario>> listar(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int tamanho) {
+        return service.listarPorCursor(cursor, tamanho);
+    }
+
+    // Com Accept: application/x-ndjson, um usuário por linha até o fim da tabela, no ritmo em que o cliente lê
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Usuario> listarEmFluxo(@RequestParam(required = false) String cursor) {
+        return service.listarAPartirDe(cursor);
+    }
+}
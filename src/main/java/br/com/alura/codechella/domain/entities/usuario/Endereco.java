@@ -7,17 +7,25 @@ public class Endereco {
     private String complemento;
 
     public Endereco(String cep, Integer numero, String complemento) {
-        if (!isCepValido(cep)) throw new IllegalArgumentException("CEP inválido");
-        if (numero == null) throw new IllegalArgumentException("Número não pode ser nulo");
+        if (!ValidadorDeDocumentos.isCepValido(cep)) throw new UsuarioInvalidoException("CEP inválido");
+        if (numero == null) throw new UsuarioInvalidoException("Número não pode ser nulo");
         this.cep = cep;
         this.numero = numero;
         this.complemento = complemento;
     }
 
-    private boolean isCepValido(String cep) {
-        if (cep == null) return false;
-        String regexCep = "\\d{5}-\\d{3}";
-        return cep.matches(regexCep);
+    private Endereco() {
+    }
+
+    /**
+     * Recria um endereço já validado e persistido, sem repetir as validações do construtor.
+     */
+    static Endereco reconstituir(String cep, Integer numero, String complemento) {
+        Endereco endereco = new Endereco();
+        endereco.cep = cep;
+        endereco.numero = numero;
+        endereco.complemento = complemento;
+        return endereco;
     }
 
     public Integer getNumero() {
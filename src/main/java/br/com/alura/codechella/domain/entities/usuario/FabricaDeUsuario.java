@@ -14,7 +14,7 @@ public class FabricaDeUsuario {
      * @param nascimento A data de nascimento do usuário.
      * @param email      O endereço de e-mail do usuário.
      * @return A instância criada de {@link Usuario}.
-     * @throws IllegalArgumentException se os parâmetros fornecidos forem inválidos.
+     * @throws UsuarioInvalidoException se os parâmetros fornecidos forem inválidos.
      */
     public Usuario comNomeCpfNascimentoEmail(String nome, String cpf, LocalDate nascimento, String email){
         this.usuario = new Usuario(cpf, nome, nascimento, email);
@@ -29,11 +29,53 @@ public class FabricaDeUsuario {
      * @param complemento Informações complementares do endereço (opcional).
      * @return A instância atualizada de {@link Usuario} com o endereço incluído.
      * @throws IllegalStateException se nenhum usuário foi criado antes de chamar este método.
-     * @throws IllegalArgumentException se os parâmetros fornecidos forem inválidos.
+     * @throws UsuarioInvalidoException se os parâmetros fornecidos forem inválidos.
      */
     public Usuario incluiEndereco(String cep, Integer numero, String complemento) {
         if (this.usuario == null) throw new IllegalStateException("Usuário não foi criado. Chame comNomeCpfNascimentoEmail primeiro.");
         this.usuario.setEndereco(new Endereco(cep, numero, complemento));
         return this.usuario;
     }
+
+    /**
+     * Cria um {@link Usuario} completo numa única chamada, com as mesmas validações de
+     * {@link #comNomeCpfNascimentoEmail} e {@link #incluiEndereco}. Não guarda estado, então pode ser usado por
+     * várias threads ao mesmo tempo, como na importação paralela de arquivos.
+     *
+     * @param nome        O nome completo do usuário.
+     * @param cpf         O CPF do usuário no formato "XXX.XXX.XXX-XX".
+     * @param nascimento  A data de nascimento do usuário.
+     * @param email       O endereço de e-mail do usuário.
+     * @param cep         O CEP do endereço no formato "XXXXX-XXX", ou {@code null} para um usuário sem endereço.
+     * @param numero      O número da residência.
+     * @param complemento Informações complementares do endereço (opcional).
+     * @return A instância criada de {@link Usuario}.
+     * @throws UsuarioInvalidoException se os parâmetros fornecidos forem inválidos.
+     */
+    public static Usuario criar(String nome, String cpf, LocalDate nascimento, String email,
+                                String cep, Integer numero, String complemento) {
+        Usuario usuario = new Usuario(cpf, nome, nascimento, email);
+        if (cep != null) usuario.setEndereco(new Endereco(cep, numero, complemento));
+        return usuario;
+    }
+
+    /**
+     * Recria um {@link Usuario} a partir de dados já persistidos, que foram validados na gravação.
+     * Não repete as validações, para a leitura não pagar por elas a cada registro.
+     *
+     * @param id          O identificador do usuário.
+     * @param cpf         O CPF do usuário.
+     * @param nome        O nome completo do usuário.
+     * @param nascimento  A data de nascimento do usuário.
+     * @param email       O endereço de e-mail do usuário.
+     * @param cep         O CEP do endereço, ou {@code null} se o usuário não tiver endereço.
+     * @param numero      O número da residência.
+     * @param complemento Informações complementares do endereço.
+     * @return A instância recriada de {@link Usuario}.
+     */
+    public static Usuario reconstituir(Long id, String cpf, String nome, LocalDate nascimento, String email,
+                                       String cep, Integer numero, String complemento) {
+        Endereco endereco = cep == null ? null : Endereco.reconstituir(cep, numero, complemento);
+        return Usuario.reconstituir(id, cpf, nome, nascimento, email, endereco);
+    }
 }
@@ -17,16 +17,20 @@ public class Usuario {
      * @param nome       Nome completo do usuário.
      * @param nascimento Data de nascimento do usuário.
      * @param email      Endereço de e-mail do usuário.
-     * @throws IllegalArgumentException se o CPF for nulo ou não corresponder ao formato esperado,
-     *                                  ou se o e-mail for nulo ou não corresponder ao formato esperado.
+     * @throws UsuarioInvalidoException se o CPF for nulo, não corresponder ao formato esperado
+     *                                  ou tiver dígitos verificadores incorretos,
+     *                                  se o e-mail for nulo ou não corresponder ao formato esperado,
+     *                                  se o nome for vazio ou se a data de nascimento for nula.
      */
     public Usuario(String cpf,
                    String nome,
                    LocalDate nascimento,
                    String email) {
 
-        if (!isCpfValido(cpf)) throw new IllegalArgumentException("CPF inválido");
-        if (!isEmailValido(email)) throw new IllegalArgumentException("E-mail inválido");
+        if (!ValidadorDeDocumentos.isCpfValido(cpf)) throw new UsuarioInvalidoException("CPF inválido");
+        if (!ValidadorDeDocumentos.isEmailValido(email)) throw new UsuarioInvalidoException("E-mail inválido");
+        if (nome == null || nome.isBlank()) throw new UsuarioInvalidoException("Nome não pode ser vazio");
+        if (nascimento == null) throw new UsuarioInvalidoException("Data de nascimento não pode ser nula");
 
         this.cpf = cpf;
         this.nome = nome;
@@ -34,31 +38,37 @@ public class Usuario {
         this.email = email;
     }
 
+    private Usuario() {
+    }
+
     /**
-     * Valida o formato do CPF.
-     *
-     * @param cpf O CPF a ser validado no formato "XXX.XXX.XXX-XX".
-     * @return true se o CPF for válido, false caso contrário.
+     * Recria um usuário já validado e persistido, sem repetir as validações do construtor.
+     * Acessível apenas por {@link FabricaDeUsuario#reconstituir}.
      */
-    private boolean isCpfValido(String cpf) {
-        if (cpf == null)
-            return false;
-
-        // Expressão regular para verificar o formato "XXX.XXX.XXX-XX"
-        String regexCpf = "\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}";
-        return cpf.matches(regexCpf);
+    static Usuario reconstituir(Long id, String cpf, String nome, LocalDate nascimento, String email, Endereco endereco) {
+        Usuario usuario = new Usuario();
+        usuario.id = id;
+        usuario.cpf = cpf;
+        usuario.nome = nome;
+        usuario.nascimento = nascimento;
+        usuario.email = email;
+        usuario.endereco = endereco;
+        return usuario;
     }
 
     /**
-     * Valida o formato do e-mail utilizando uma expressão regular básica.
+     * Altera os dados informados e mantém os que vierem nulos. O CPF identifica o usuário e não é alterável.
+     * Nada é alterado se algum dos valores informados for inválido.
      *
-     * @param email O e-mail a ser validado.
-     * @return true se o e-mail for válido, false caso contrário.
+     * @throws UsuarioInvalidoException se o e-mail não corresponder ao formato esperado ou se o nome for vazio.
      */
-    private boolean isEmailValido(String email) {
-        if (email == null || email.isEmpty()) return false;
-        String regexEmail = "^[\\w.-]+@[\\w.-]+\\.[A-Za-z]{2,6}$";
-        return email.matches(regexEmail);
+    public void alterar(String nome, LocalDate nascimento, String email) {
+        if (email != null && !ValidadorDeDocumentos.isEmailValido(email)) throw new UsuarioInvalidoException("E-mail inválido");
+        if (nome != null && nome.isBlank()) throw new UsuarioInvalidoException("Nome não pode ser vazio");
+
+        if (nome != null) this.nome = nome;
+        if (nascimento != null) this.nascimento = nascimento;
+        if (email != null) this.email = email;
     }
 
     public void setNome(String nome) {
@@ -0,0 +1,12 @@
+package br.com.alura.codechella.domain.entities.usuario;
+
+/**
+ * Dados de usuário recusados pelas regras do domínio. Estende {@link IllegalArgumentException} para quem já trata
+ * argumentos inválidos em geral, mas permite separar estas recusas das de cursores, termos de busca e afins.
+ */
+public class UsuarioInvalidoException extends IllegalArgumentException {
+
+    public UsuarioInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
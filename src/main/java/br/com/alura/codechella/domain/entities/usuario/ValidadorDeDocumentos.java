@@ -0,0 +1,99 @@
+package br.com.alura.codechella.domain.entities.usuario;
+
+import java.util.regex.Pattern;
+
+/**
+ * Validações de CPF, CEP e e-mail compartilhadas pela entidade de domínio e pelo modelo JPA.
+ * CPF e CEP são conferidos por varredura caractere a caractere, sem alocar objetos; o e-mail
+ * usa uma expressão regular compilada uma única vez.
+ */
+public final class ValidadorDeDocumentos {
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.[A-Za-z]{2,6}$");
+
+    private ValidadorDeDocumentos() {
+    }
+
+    /**
+     * Valida o CPF no formato "XXX.XXX.XXX-XX", incluindo os dois dígitos verificadores.
+     * CPFs com todos os dígitos iguais (ex.: "111.111.111-11") são rejeitados.
+     *
+     * @param cpf O CPF a ser validado.
+     * @return true se o formato e os dígitos verificadores forem válidos, false caso contrário.
+     */
+    public static boolean isCpfValido(String cpf) {
+        if (!isFormatoDeCpfValido(cpf)) return false;
+
+        int soma1 = 0;
+        int soma2 = 0;
+        boolean todosIguais = true;
+        char primeiro = cpf.charAt(0);
+        for (int i = 0, peso = 10; i < 11; i++) {
+            char c = cpf.charAt(i);
+            if (c == '.') continue;
+            if (c != primeiro) todosIguais = false;
+            int digito = c - '0';
+            soma1 += digito * peso;
+            soma2 += digito * (peso + 1);
+            peso--;
+        }
+        if (todosIguais) return false;
+
+        int dv1 = digitoVerificador(soma1);
+        if (cpf.charAt(12) - '0' != dv1) return false;
+
+        int dv2 = digitoVerificador(soma2 + dv1 * 2);
+        return cpf.charAt(13) - '0' == dv2;
+    }
+
+    /**
+     * Confere apenas a máscara "XXX.XXX.XXX-XX", sem calcular os dígitos verificadores.
+     *
+     * @param cpf O CPF a ser conferido.
+     * @return true se o CPF seguir a máscara, false caso contrário.
+     */
+    public static boolean isFormatoDeCpfValido(String cpf) {
+        if (cpf == null || cpf.length() != 14) return false;
+        for (int i = 0; i < 14; i++) {
+            char c = cpf.charAt(i);
+            boolean ok = switch (i) {
+                case 3, 7 -> c == '.';
+                case 11 -> c == '-';
+                default -> c >= '0' && c <= '9';
+            };
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Valida o CEP no formato "XXXXX-XXX".
+     *
+     * @param cep O CEP a ser validado.
+     * @return true se o CEP for válido, false caso contrário.
+     */
+    public static boolean isCepValido(String cep) {
+        if (cep == null || cep.length() != 9) return false;
+        for (int i = 0; i < 9; i++) {
+            char c = cep.charAt(i);
+            if (i == 5 ? c != '-' : c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Valida o formato do e-mail utilizando uma expressão regular básica.
+     *
+     * @param email O e-mail a ser validado.
+     * @return true se o e-mail for válido, false caso contrário.
+     */
+    public static boolean isEmailValido(String email) {
+        if (email == null || email.isEmpty()) return false;
+        return EMAIL.matcher(email).matches();
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
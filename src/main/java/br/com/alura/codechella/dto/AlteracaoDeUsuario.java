@@ -0,0 +1,9 @@
+package br.com.alura.codechella.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Corpo do {@code PATCH /usuarios/{id}}: campos nulos ficam como estão. O CPF não é alterável.
+ */
+public record AlteracaoDeUsuario(String nome, LocalDate nascimento, String email, UsuarioDto.EnderecoDto endereco) {
+}
@@ -0,0 +1,7 @@
+package br.com.alura.codechella.dto;
+
+/**
+ * Resposta do check-in nos portões: o CPF lido está cadastrado e pertence ao usuário {@code id}.
+ */
+public record CheckIn(long id) {
+}
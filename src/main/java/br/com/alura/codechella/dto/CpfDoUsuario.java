@@ -0,0 +1,7 @@
+package br.com.alura.codechella.dto;
+
+/**
+ * Projeção com o id e o CPF do usuário, usada para aquecer o diretório de CPFs do check-in.
+ */
+public record CpfDoUsuario(Long id, String cpf) {
+}
@@ -0,0 +1,7 @@
+package br.com.alura.codechella.dto;
+
+/**
+ * Projeção com os campos únicos do usuário, usada para aquecer o filtro de duplicidade.
+ */
+public record DocumentosDoUsuario(String cpf, String email) {
+}
@@ -0,0 +1,6 @@
+package br.com.alura.codechella.dto;
+
+import java.util.List;
+
+public record PaginaDaBusca(List<ResultadoDaBusca> conteudo, int pagina, boolean temProxima) {
+}
@@ -0,0 +1,12 @@
+package br.com.alura.codechella.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor.
+ *
+ * @param conteudo      Itens da página, em ordem crescente de id.
+ * @param proximoCursor Token opaco para buscar a página seguinte, ou {@code null} se esta for a última.
+ */
+public record PaginaPorCursor<T>(List<T> conteudo, String proximoCursor) {
+}
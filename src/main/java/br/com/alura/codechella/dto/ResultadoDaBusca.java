@@ -0,0 +1,7 @@
+package br.com.alura.codechella.dto;
+
+/**
+ * @param relevancia Entre 0 e 1: similaridade por trigramas com o nome ou o e-mail, ou 1 quando um deles começa pelo termo.
+ */
+public record ResultadoDaBusca(Long id, String nome, String email, double relevancia) {
+}
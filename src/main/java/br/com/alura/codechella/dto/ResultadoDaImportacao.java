@@ -0,0 +1,20 @@
+package br.com.alura.codechella.dto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Resultado da importação de um arquivo CSV.
+ *
+ * @param linhas      Linhas de dados lidas, sem o cabeçalho e as linhas em branco.
+ * @param cadastrados Quantidade de usuários gravados.
+ * @param rejeitados  Quantidade de linhas rejeitadas, cada uma com o motivo no relatório.
+ * @param duracao     Tempo total, da abertura do arquivo à última gravação.
+ * @param relatorio   Arquivo CSV com o número e o motivo de cada linha rejeitada.
+ */
+public record ResultadoDaImportacao(long linhas, long cadastrados, long rejeitados, Duration duracao, Path relatorio) {
+
+    public double linhasPorSegundo() {
+        return duracao.isZero() ? linhas : linhas * 1e9 / duracao.toNanos();
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.alura.codechella.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de um cadastro em lote.
+ *
+ * @param cadastrados Quantidade de usuários gravados.
+ * @param rejeitados  Quantidade de itens rejeitados.
+ * @param falhas      Detalhe de cada item rejeitado; itens gravados não são listados.
+ */
+public record ResultadoDoLote(long cadastrados, long rejeitados, List<FalhaNoItem> falhas) {
+
+    /**
+     * @param indice Posição do item no corpo da requisição, a partir de zero.
+     * @param motivo Descrição do erro de validação ou de gravação.
+     */
+    public record FalhaNoItem(long indice, String motivo) {
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.alura.codechella.dto;
+
+import java.util.UUID;
+
+/**
+ * Situação de um cadastro aceito pela fila assíncrona.
+ *
+ * @param protocolo Identificador devolvido no 202 de {@code POST /usuarios}.
+ * @param situacao  PENDENTE enquanto estiver na fila, depois CONCLUIDO ou REJEITADO.
+ * @param usuarioId Id reservado para o usuário na aceitação, o mesmo com que ele é gravado; vazio quando REJEITADO.
+ * @param motivo    Motivo da rejeição, quando REJEITADO.
+ */
+public record StatusDoCadastro(UUID protocolo, Situacao situacao, Long usuarioId, String motivo) {
+
+    public enum Situacao {PENDENTE, CONCLUIDO, REJEITADO}
+
+    public static StatusDoCadastro pendente(UUID protocolo, long usuarioId) {
+        return new StatusDoCadastro(protocolo, Situacao.PENDENTE, usuarioId, null);
+    }
+}
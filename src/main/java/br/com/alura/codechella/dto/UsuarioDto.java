@@ -0,0 +1,34 @@
+package br.com.alura.codechella.dto;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.domain.entities.usuario.UsuarioInvalidoException;
+
+import java.time.LocalDate;
+
+/**
+ * Corpo de {@code POST /usuarios}. A validação fica a cargo da entidade de domínio.
+ */
+public record UsuarioDto(String cpf, String nome, LocalDate nascimento, String email, EnderecoDto endereco) {
+
+    public static UsuarioDto de(Usuario usuario) {
+        var endereco = usuario.getEndereco() == null ? null : new EnderecoDto(usuario.getEndereco().getCep(),
+                usuario.getEndereco().getNumero(), usuario.getEndereco().getComplemento());
+        return new UsuarioDto(usuario.getCpf(), usuario.getNome(), usuario.getNascimento(), usuario.getEmail(), endereco);
+    }
+
+    /**
+     * Cria o usuário de domínio, aplicando as validações da entidade.
+     *
+     * @throws UsuarioInvalidoException se algum campo for inválido.
+     */
+    public Usuario paraDominio() {
+        var fabrica = new FabricaDeUsuario();
+        var usuario = fabrica.comNomeCpfNascimentoEmail(nome, cpf, nascimento, email);
+        if (endereco != null) fabrica.incluiEndereco(endereco.cep(), endereco.numero(), endereco.complemento());
+        return usuario;
+    }
+
+    public record EnderecoDto(String cep, Integer numero, String complemento) {
+    }
+}
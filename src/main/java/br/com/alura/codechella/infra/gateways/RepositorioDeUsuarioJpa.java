@@ -0,0 +1,34 @@
+package br.com.alura.codechella.infra.gateways;
+
+import br.com.alura.codechella.application.gateways.RepositorioDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.service.UsuarioService;
+
+/**
+ * Implementa o gateway de usuários sobre o serviço JPA, que já cuida de cache e de duplicidade.
+ */
+public class RepositorioDeUsuarioJpa implements RepositorioDeUsuario {
+
+    private final UsuarioService service;
+    private final UsuarioEntityMapper mapper;
+
+    public RepositorioDeUsuarioJpa(UsuarioService service, UsuarioEntityMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Usuario cadastrarUsuario(Usuario usuario) {
+        var salvo = service.cadastrarUsuario(mapper.toEntity(usuario));
+        usuario.setId(salvo.getId());
+        return usuario;
+    }
+
+    @Override
+    public PaginaPorCursor<Usuario> listarPorCursor(String cursor, int tamanho) {
+        var pagina = service.listarPorCursor(cursor, tamanho);
+        var usuarios = pagina.conteudo().stream().map(mapper::toDomain).toList();
+        return new PaginaPorCursor<>(usuarios, pagina.proximoCursor());
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.alura.codechella.infra.gateways;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.model.Endereco;
+
+/**
+ * Converte entre a entidade de domínio e o modelo JPA campo a campo, sem reflexão.
+ */
+public class UsuarioEntityMapper {
+
+    public br.com.alura.codechella.model.Usuario toEntity(Usuario usuario) {
+        var entity = new br.com.alura.codechella.model.Usuario();
+        entity.setId(usuario.getId());
+        entity.setCpf(usuario.getCpf());
+        entity.setNome(usuario.getNome());
+        entity.setNascimento(usuario.getNascimento());
+        entity.setEmail(usuario.getEmail());
+
+        if (usuario.getEndereco() != null) {
+            Endereco endereco = new Endereco();
+            endereco.setCep(usuario.getEndereco().getCep());
+            endereco.setNumero(usuario.getEndereco().getNumero());
+            endereco.setComplemento(usuario.getEndereco().getComplemento());
+            entity.setEndereco(endereco);
+        }
+        return entity;
+    }
+
+    public Usuario toDomain(br.com.alura.codechella.model.Usuario entity) {
+        Endereco endereco = entity.getEndereco();
+        return FabricaDeUsuario.reconstituir(entity.getId(), entity.getCpf(), entity.getNome(),
+                entity.getNascimento(), entity.getEmail(),
+                endereco == null ? null : endereco.getCep(),
+                endereco == null ? null : endereco.getNumero(),
+                endereco == null ? null : endereco.getComplemento());
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import java.util.Optional;
+
+/**
+ * Guarda, por um prazo limitado, o resultado de cada requisição feita com {@code Idempotency-Key}.
+ */
+public interface ArmazemDeIdempotencia {
+
+    /**
+     * Reserva a chave para uma nova execução, de forma atômica. Uma reserva sem resposta mais antiga que o prazo
+     * da reserva é assumida, como se não existisse: quem a fez caiu antes de concluir ou liberar a chave.
+     *
+     * @return Vazio se a chave foi reservada agora; senão, o registro de quem a reservou antes.
+     */
+    Optional<RegistroDeIdempotencia> reservar(String chave, String hashDaRequisicao);
+
+    void concluir(String chave, RespostaGuardada resposta);
+
+    /**
+     * Desfaz a reserva de uma execução que falhou, para que a retentativa execute de novo.
+     */
+    void liberar(String chave);
+}
@@ -0,0 +1,124 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Armazém em memória dividido em faixas, cada uma com sua trava, para que requisições com chaves diferentes
+ * raramente disputem a mesma trava. Cada faixa guarda as chaves em ordem de inserção: as vencidas saem pela
+ * frente a cada escrita e, com a faixa cheia, sai a mais antiga.
+ */
+public class ArmazemDeIdempotenciaEmMemoria implements ArmazemDeIdempotencia {
+
+    private static final int FAIXAS = 64;
+
+    private record Entrada(RegistroDeIdempotencia registro, long reservadaEm, long expiraEm) {
+    }
+
+    private final Map<String, Entrada>[] faixas;
+    private final ReentrantLock[] travas;
+    private final int capacidadePorFaixa;
+    private final long validadeEmMillis;
+    private final long prazoDaReservaEmMillis;
+    private final LongSupplier relogio;
+
+    public ArmazemDeIdempotenciaEmMemoria(int capacidade, Duration validade, Duration prazoDaReserva) {
+        this(capacidade, validade, prazoDaReserva, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    ArmazemDeIdempotenciaEmMemoria(int capacidade, Duration validade, Duration prazoDaReserva, LongSupplier relogio) {
+        this.capacidadePorFaixa = Math.max(1, capacidade / FAIXAS);
+        this.validadeEmMillis = validade.toMillis();
+        this.prazoDaReservaEmMillis = prazoDaReserva.toMillis();
+        this.relogio = relogio;
+        this.faixas = new Map[FAIXAS];
+        this.travas = new ReentrantLock[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new LinkedHashMap<>();
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Optional<RegistroDeIdempotencia> reservar(String chave, String hashDaRequisicao) {
+        int faixa = faixa(chave);
+        travas[faixa].lock();
+        try {
+            long agora = relogio.getAsLong();
+            removerVencidas(faixas[faixa], agora);
+            Entrada existente = faixas[faixa].get(chave);
+            if (existente != null && !abandonada(existente, agora)) return Optional.of(existente.registro());
+            // Sai antes de voltar: a nova reserva vai para o fim da ordem, com a validade contada de agora
+            if (existente != null) faixas[faixa].remove(chave);
+
+            if (faixas[faixa].size() >= capacidadePorFaixa) {
+                Iterator<String> maisAntiga = faixas[faixa].keySet().iterator();
+                maisAntiga.next();
+                maisAntiga.remove();
+            }
+            faixas[faixa].put(chave, new Entrada(new RegistroDeIdempotencia(hashDaRequisicao, null), agora,
+                    agora + validadeEmMillis));
+            return Optional.empty();
+        } finally {
+            travas[faixa].unlock();
+        }
+    }
+
+    @Override
+    public void concluir(String chave, RespostaGuardada resposta) {
+        int faixa = faixa(chave);
+        travas[faixa].lock();
+        try {
+            faixas[faixa].computeIfPresent(chave, (k, entrada) -> new Entrada(
+                    new RegistroDeIdempotencia(entrada.registro().hashDaRequisicao(), resposta), entrada.reservadaEm(),
+                    entrada.expiraEm()));
+        } finally {
+            travas[faixa].unlock();
+        }
+    }
+
+    @Override
+    public void liberar(String chave) {
+        int faixa = faixa(chave);
+        travas[faixa].lock();
+        try {
+            faixas[faixa].remove(chave);
+        } finally {
+            travas[faixa].unlock();
+        }
+    }
+
+    int tamanho() {
+        int total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            travas[i].lock();
+            try {
+                total += faixas[i].size();
+            } finally {
+                travas[i].unlock();
+            }
+        }
+        return total;
+    }
+
+    private boolean abandonada(Entrada entrada, long agora) {
+        return entrada.registro().emAndamento() && entrada.reservadaEm() + prazoDaReservaEmMillis <= agora;
+    }
+
+    // A validade é a mesma para todas, então as vencidas estão sempre no começo da ordem de inserção
+    private static void removerVencidas(Map<String, Entrada> faixa, long agora) {
+        Iterator<Entrada> entradas = faixa.values().iterator();
+        while (entradas.hasNext() && entradas.next().expiraEm() <= agora) entradas.remove();
+    }
+
+    private static int faixa(String chave) {
+        int h = chave.hashCode();
+        return (h ^ (h >>> 16)) & (FAIXAS - 1);
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazém na tabela {@code chaves_de_idempotencia} (migrações V2, V5 e V6), compartilhado entre instâncias da aplicação.
+ * A chave primária garante que só uma requisição reserve cada chave; as vencidas são apagadas
+ * periodicamente, junto com as reservas. Uma reserva sem resposta que passou do prazo da reserva é assumida
+ * por um UPDATE condicional, que só uma das retentativas concorrentes consegue fazer.
+ */
+public class ArmazemDeIdempotenciaJdbc implements ArmazemDeIdempotencia {
+
+    private static final int RESERVAS_ENTRE_LIMPEZAS = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final Duration validade;
+    private final Duration prazoDaReserva;
+    private final AtomicLong reservas = new AtomicLong();
+
+    public ArmazemDeIdempotenciaJdbc(JdbcTemplate jdbc, Duration validade, Duration prazoDaReserva) {
+        this.jdbc = jdbc;
+        this.validade = validade;
+        this.prazoDaReserva = prazoDaReserva;
+    }
+
+    @Override
+    public Optional<RegistroDeIdempotencia> reservar(String chave, String hashDaRequisicao) {
+        if (reservas.incrementAndGet() % RESERVAS_ENTRE_LIMPEZAS == 0)
+            jdbc.update("delete from chaves_de_idempotencia where expira_em <= ?", Timestamp.from(Instant.now()));
+
+        try {
+            inserir(chave, hashDaRequisicao);
+            return Optional.empty();
+        } catch (DuplicateKeyException jaReservada) {
+            Optional<RegistroDeIdempotencia> existente = buscarValida(chave);
+            if (existente.isPresent() && existente.get().emAndamento() && assumirAbandonada(chave, hashDaRequisicao))
+                return Optional.empty();
+            if (existente.isPresent()) return existente;
+            // Vencida e ainda não limpa: substitui pela nova reserva
+            jdbc.update("delete from chaves_de_idempotencia where chave = ? and expira_em <= ?", chave, Timestamp.from(Instant.now()));
+            try {
+                inserir(chave, hashDaRequisicao);
+                return Optional.empty();
+            } catch (DuplicateKeyException outraReserva) {
+                return buscarValida(chave);
+            }
+        }
+    }
+
+    @Override
+    public void concluir(String chave, RespostaGuardada resposta) {
+        jdbc.update("""
+                        update chaves_de_idempotencia set status = ?, location = ?, tipo_do_corpo = ?, corpo_serializado = ?
+                         where chave = ?""",
+                resposta.status(), resposta.location(), resposta.tipoDoCorpo(), resposta.corpo(), chave);
+    }
+
+    @Override
+    public void liberar(String chave) {
+        jdbc.update("delete from chaves_de_idempotencia where chave = ? and status is null", chave);
+    }
+
+    private void inserir(String chave, String hashDaRequisicao) {
+        Instant agora = Instant.now();
+        jdbc.update("insert into chaves_de_idempotencia (chave, hash_da_requisicao, reservada_em, expira_em) values (?, ?, ?, ?)",
+                chave, hashDaRequisicao, Timestamp.from(agora), Timestamp.from(agora.plus(validade)));
+    }
+
+    private boolean assumirAbandonada(String chave, String hashDaRequisicao) {
+        Instant agora = Instant.now();
+        return jdbc.update("""
+                        update chaves_de_idempotencia set hash_da_requisicao = ?, reservada_em = ?, expira_em = ?
+                         where chave = ? and status is null and (reservada_em is null or reservada_em <= ?)""",
+                hashDaRequisicao, Timestamp.from(agora), Timestamp.from(agora.plus(validade)),
+                chave, Timestamp.from(agora.minus(prazoDaReserva))) == 1;
+    }
+
+    private Optional<RegistroDeIdempotencia> buscarValida(String chave) {
+        List<RegistroDeIdempotencia> registros = jdbc.query(
+                """
+                        select hash_da_requisicao, status, location, tipo_do_corpo, corpo_serializado, corpo
+                          from chaves_de_idempotencia where chave = ? and expira_em > ?""",
+                (rs, i) -> {
+                    int status = rs.getInt("status");
+                    if (rs.wasNull()) return new RegistroDeIdempotencia(rs.getString("hash_da_requisicao"), null);
+                    String tipo = rs.getString("tipo_do_corpo");
+                    byte[] corpo = rs.getBytes("corpo_serializado");
+                    // Guardada antes da V6: só o texto JSON
+                    String json = rs.getString("corpo");
+                    if (corpo == null && json != null) {
+                        tipo = MediaType.APPLICATION_JSON_VALUE;
+                        corpo = json.getBytes(StandardCharsets.UTF_8);
+                    }
+                    return new RegistroDeIdempotencia(rs.getString("hash_da_requisicao"),
+                            new RespostaGuardada(status, rs.getString("location"), tipo, corpo));
+                },
+                chave, Timestamp.from(Instant.now()));
+        return registros.stream().findFirst();
+    }
+}
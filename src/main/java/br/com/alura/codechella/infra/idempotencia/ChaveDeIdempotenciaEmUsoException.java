@@ -0,0 +1,8 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+public class ChaveDeIdempotenciaEmUsoException extends RuntimeException {
+
+    public ChaveDeIdempotenciaEmUsoException() {
+        super("Requisição com esta Idempotency-Key ainda em andamento");
+    }
+}
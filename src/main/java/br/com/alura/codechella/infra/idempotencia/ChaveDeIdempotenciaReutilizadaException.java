@@ -0,0 +1,8 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+public class ChaveDeIdempotenciaReutilizadaException extends RuntimeException {
+
+    public ChaveDeIdempotenciaReutilizadaException() {
+        super("Idempotency-Key já usada com outro corpo de requisição");
+    }
+}
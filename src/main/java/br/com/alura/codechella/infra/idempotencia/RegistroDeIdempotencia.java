@@ -0,0 +1,12 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+/**
+ * @param hashDaRequisicao SHA-256 do corpo da requisição que reservou a chave.
+ * @param resposta         A resposta guardada, ou {@code null} enquanto a requisição original estiver em andamento.
+ */
+public record RegistroDeIdempotencia(String hashDaRequisicao, RespostaGuardada resposta) {
+
+    public boolean emAndamento() {
+        return resposta == null;
+    }
+}
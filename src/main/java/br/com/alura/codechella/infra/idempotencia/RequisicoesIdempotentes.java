@@ -0,0 +1,160 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma requisição no máximo uma vez por {@code Idempotency-Key}: a retentativa com a mesma chave
+ * e o mesmo corpo recebe a resposta original, sem validar nem ir ao banco de novo.
+ * Só respostas 2xx são guardadas; após qualquer outro desfecho, inclusive um {@link Error}, a chave é liberada e
+ * a retentativa executa normalmente. Se nem a liberação chegar ao armazém, a reserva vence pelo prazo da reserva.
+ * <p>
+ * O corpo é guardado nos bytes do formato negociado pelo {@code Accept} da requisição original (JSON, CBOR ou Smile),
+ * com o seu {@code Content-Type}: a retentativa recebe exatamente os mesmos bytes, mesmo que peça outro formato.
+ */
+public class RequisicoesIdempotentes {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_DE_REPETICAO = "Idempotent-Replayed";
+    private static final int TAMANHO_MAXIMO_DA_CHAVE = 255;
+
+    private final ArmazemDeIdempotencia armazem;
+    private final ObjectMapper objectMapper;
+    private final List<HttpMessageConverter<?>> conversores;
+
+    /**
+     * @param conversores Os conversores das respostas, na ordem de preferência do MVC; sem nenhum que sirva,
+     *                    o corpo é guardado em JSON.
+     */
+    public RequisicoesIdempotentes(ArmazemDeIdempotencia armazem, ObjectMapper objectMapper,
+                                   List<HttpMessageConverter<?>> conversores) {
+        this.armazem = armazem;
+        this.objectMapper = objectMapper;
+        this.conversores = conversores;
+    }
+
+    /**
+     * @param chave  O valor do cabeçalho, ou {@code null} para executar sem idempotência.
+     * @param accept O cabeçalho {@code Accept} da requisição, que escolhe o formato do corpo guardado.
+     * @param corpo  O corpo da requisição, comparado com o da requisição original.
+     * @throws ChaveDeIdempotenciaEmUsoException se a requisição original ainda estiver em andamento.
+     * @throws ChaveDeIdempotenciaReutilizadaException se a chave já tiver sido usada com outro corpo.
+     */
+    public ResponseEntity<?> executar(String chave, String accept, Object corpo, Supplier<ResponseEntity<?>> acao) {
+        if (chave == null) return acao.get();
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_DA_CHAVE)
+            throw new IllegalArgumentException("Idempotency-Key deve ter de 1 a " + TAMANHO_MAXIMO_DA_CHAVE + " caracteres");
+
+        String hash = hash(corpo);
+        var anterior = armazem.reservar(chave, hash);
+        if (anterior.isPresent()) {
+            if (!anterior.get().hashDaRequisicao().equals(hash)) throw new ChaveDeIdempotenciaReutilizadaException();
+            if (anterior.get().emAndamento()) throw new ChaveDeIdempotenciaEmUsoException();
+            return repetir(anterior.get().resposta());
+        }
+
+        boolean concluida = false;
+        try {
+            ResponseEntity<?> resposta = acao.get();
+            if (resposta.getStatusCode().is2xxSuccessful()) {
+                armazem.concluir(chave, guardar(resposta, accept));
+                concluida = true;
+            }
+            return resposta;
+        } finally {
+            if (!concluida) armazem.liberar(chave);
+        }
+    }
+
+    private RespostaGuardada guardar(ResponseEntity<?> resposta, String accept) {
+        int status = resposta.getStatusCode().value();
+        String location = resposta.getHeaders().getFirst(HttpHeaders.LOCATION);
+        Object corpo = resposta.getBody();
+        if (corpo == null) return new RespostaGuardada(status, location, null, null);
+
+        for (MediaType aceito : aceitos(accept)) {
+            for (HttpMessageConverter<?> conversor : conversores) {
+                for (MediaType tipo : conversor.getSupportedMediaTypes(corpo.getClass())) {
+                    if (tipo.isConcrete() && aceito.isCompatibleWith(tipo) && conversor.canWrite(corpo.getClass(), tipo))
+                        return new RespostaGuardada(status, location, tipo.toString(), serializar(conversor, corpo, tipo));
+                }
+            }
+        }
+        try {
+            return new RespostaGuardada(status, location, MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsBytes(corpo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Mesma ordem da negociação do MVC: do tipo mais específico (e de maior qualidade) para o mais genérico
+    private static List<MediaType> aceitos(String accept) {
+        if (accept == null || accept.isBlank()) return List.of(MediaType.ALL);
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(tipos);
+            return tipos;
+        } catch (InvalidMediaTypeException e) {
+            return List.of(MediaType.ALL);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] serializar(HttpMessageConverter<?> conversor, Object corpo, MediaType tipo) {
+        var bytes = new ByteArrayOutputStream();
+        var mensagem = new HttpOutputMessage() {
+            private final HttpHeaders cabecalhos = new HttpHeaders();
+
+            @Override
+            public ByteArrayOutputStream getBody() {
+                return bytes;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return cabecalhos;
+            }
+        };
+        try {
+            ((HttpMessageConverter<Object>) conversor).write(corpo, tipo, mensagem);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Os bytes guardados, com o tipo original: o conversor de byte[] os envia sem serializar de novo
+    private ResponseEntity<?> repetir(RespostaGuardada guardada) {
+        var resposta = ResponseEntity.status(guardada.status())
+                .header(CABECALHO_DE_REPETICAO, "true")
+                .varyBy(HttpHeaders.ACCEPT);
+        if (guardada.location() != null) resposta.header(HttpHeaders.LOCATION, guardada.location());
+        if (guardada.corpo() == null) return resposta.build();
+        return resposta.contentType(MediaType.parseMediaType(guardada.tipoDoCorpo())).body(guardada.corpo());
+    }
+
+    private String hash(Object corpo) {
+        try {
+            byte[] bytes = corpo == null ? new byte[0] : objectMapper.writeValueAsBytes(corpo);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
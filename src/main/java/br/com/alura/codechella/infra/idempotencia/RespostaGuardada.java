@@ -0,0 +1,31 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Resposta de uma requisição já executada, repetida para as retentativas com a mesma chave.
+ *
+ * @param tipoDoCorpo O {@code Content-Type} em que o corpo foi serializado, ou {@code null} sem corpo.
+ * @param corpo       Os bytes do corpo como foram enviados ao cliente, em JSON, CBOR ou Smile.
+ */
+public record RespostaGuardada(int status, String location, String tipoDoCorpo, byte[] corpo) {
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof RespostaGuardada resposta && status == resposta.status
+                && Objects.equals(location, resposta.location) && Objects.equals(tipoDoCorpo, resposta.tipoDoCorpo)
+                && Arrays.equals(corpo, resposta.corpo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, location, tipoDoCorpo, Arrays.hashCode(corpo));
+    }
+
+    @Override
+    public String toString() {
+        return "RespostaGuardada[status=" + status + ", location=" + location + ", tipoDoCorpo=" + tipoDoCorpo
+                + ", corpo=" + (corpo == null ? null : corpo.length + " bytes") + "]";
+    }
+}
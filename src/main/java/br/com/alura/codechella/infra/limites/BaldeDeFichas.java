@@ -0,0 +1,51 @@
+package br.com.alura.codechella.infra.limites;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas sem trava, na forma do GCRA: em vez de contar fichas, guarda o instante teórico em que
+ * o balde estaria cheio de novo. Cada ficha empurra esse instante um intervalo para frente, e a requisição
+ * é recusada se ele passar da capacidade da rajada. Todo o estado cabe num único {@link AtomicLong}.
+ */
+public class BaldeDeFichas {
+
+    private final long intervaloEmNanos;
+    private final long toleranciaEmNanos;
+    private final LongSupplier relogio;
+    private final AtomicLong cheioEm;
+
+    /**
+     * @param taxaPorSegundo Fichas repostas por segundo.
+     * @param rajada         Fichas disponíveis de uma vez, com o balde cheio.
+     */
+    public BaldeDeFichas(double taxaPorSegundo, int rajada) {
+        this(taxaPorSegundo, rajada, System::nanoTime);
+    }
+
+    BaldeDeFichas(double taxaPorSegundo, int rajada, LongSupplier relogio) {
+        if (taxaPorSegundo <= 0 || rajada < 1) throw new IllegalArgumentException("Taxa e rajada devem ser positivas");
+        this.intervaloEmNanos = (long) (1_000_000_000L / taxaPorSegundo);
+        this.toleranciaEmNanos = intervaloEmNanos * rajada;
+        this.relogio = relogio;
+        this.cheioEm = new AtomicLong(relogio.getAsLong());
+    }
+
+    public boolean tentarConsumir() {
+        while (true) {
+            long agora = relogio.getAsLong();
+            long atual = cheioEm.get();
+            long proximo = Math.max(atual, agora) + intervaloEmNanos;
+            if (proximo - agora > toleranciaEmNanos) return false;
+            if (cheioEm.compareAndSet(atual, proximo)) return true;
+        }
+    }
+
+    /**
+     * @return Quanto falta, em nanossegundos, para a próxima ficha ficar disponível; zero se já houver.
+     */
+    public long esperaPorFicha() {
+        long agora = relogio.getAsLong();
+        return Math.max(0, Math.max(cheioEm.get(), agora) + intervaloEmNanos - agora - toleranciaEmNanos);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.alura.codechella.infra.limites;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisições simultâneas que se ajusta pela latência observada (AIMD): cresce de um em um
+ * enquanto as respostas ficam abaixo da latência alvo com o limite em uso, e cai 10% quando uma resposta
+ * passa do alvo ou falha, no máximo uma vez por janela de latência alvo. Assim o excesso é recusado na
+ * entrada antes que as requisições se acumulem esperando conexão no pool.
+ */
+public class LimitadorDeConcorrencia {
+
+    private static final double FATOR_DE_REDUCAO = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaAlvoEmNanos;
+    private final LongSupplier relogio;
+    private final AtomicInteger limite;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicLong ultimaReducao = new AtomicLong();
+
+    public LimitadorDeConcorrencia(int inicial, int minimo, int maximo, long latenciaAlvoEmNanos) {
+        this(inicial, minimo, maximo, latenciaAlvoEmNanos, System::nanoTime);
+    }
+
+    LimitadorDeConcorrencia(int inicial, int minimo, int maximo, long latenciaAlvoEmNanos, LongSupplier relogio) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaAlvoEmNanos = latenciaAlvoEmNanos;
+        this.relogio = relogio;
+        this.limite = new AtomicInteger(Math.max(minimo, Math.min(inicial, maximo)));
+        this.ultimaReducao.set(relogio.getAsLong() - latenciaAlvoEmNanos);
+    }
+
+    public boolean tentarAdquirir() {
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= limite.get()) return false;
+            if (emAndamento.compareAndSet(atual, atual + 1)) return true;
+        }
+    }
+
+    /**
+     * @param latenciaEmNanos Duração da requisição que está saindo.
+     * @param falhou          Se terminou com erro do servidor, que conta como sobrecarga.
+     */
+    public void liberar(long latenciaEmNanos, boolean falhou) {
+        int emUso = emAndamento.getAndDecrement();
+        if (falhou || latenciaEmNanos > latenciaAlvoEmNanos) {
+            long agora = relogio.getAsLong();
+            long anterior = ultimaReducao.get();
+            if (agora - anterior >= latenciaAlvoEmNanos && ultimaReducao.compareAndSet(anterior, agora))
+                limite.updateAndGet(l -> Math.max(minimo, (int) (l * FATOR_DE_REDUCAO)));
+        } else if (emUso >= limite.get()) {
+            limite.updateAndGet(l -> Math.min(maximo, l + 1));
+        }
+    }
+
+    public int limite() {
+        return limite.get();
+    }
+
+    public int emAndamento() {
+        return emAndamento.get();
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.alura.codechella.infra.limites;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Requisição recusada na entrada: 429 quando o cliente passou da sua taxa, 503 quando o endpoint está
+ * no limite de requisições simultâneas.
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long esperaEmSegundos;
+
+    public LimiteExcedidoException(HttpStatus status, String mensagem, long esperaEmSegundos) {
+        super(mensagem);
+        this.status = status;
+        this.esperaEmSegundos = esperaEmSegundos;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getEsperaEmSegundos() {
+        return esperaEmSegundos;
+    }
+}
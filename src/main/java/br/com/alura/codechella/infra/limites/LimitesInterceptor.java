@@ -0,0 +1,125 @@
+package br.com.alura.codechella.infra.limites;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica, antes do controller, um {@link BaldeDeFichas} por cliente e endpoint e um
+ * {@link LimitadorDeConcorrencia} por endpoint. O endpoint é o nome do método do controller
+ * ({@code cadastrar}, {@code listar}...), e cada propriedade {@code codechella.limites.<endpoint>.*}
+ * sobrepõe a correspondente em {@code codechella.limites.padrao.*}.
+ * <p>
+ * Publica {@code codechella.limites.rejeicoes} por endpoint e motivo e, por endpoint,
+ * {@code codechella.limites.concorrencia.limite} e {@code codechella.limites.concorrencia.em-andamento}.
+ */
+public class LimitesInterceptor implements HandlerInterceptor {
+
+    private static final String AQUISICAO = LimitesInterceptor.class.getName() + ".aquisicao";
+
+    private record Aquisicao(LimitadorDeConcorrencia limitador, long inicio) {
+    }
+
+    private final Environment environment;
+    private final MeterRegistry registry;
+    private final String cabecalhoDoCliente;
+    private final Map<String, LimitadorDeConcorrencia> limitadores = new ConcurrentHashMap<>();
+    private final Cache<String, BaldeDeFichas> baldes;
+
+    public LimitesInterceptor(Environment environment, MeterRegistry registry) {
+        this.environment = environment;
+        this.registry = registry;
+        this.cabecalhoDoCliente = environment.getProperty("codechella.limites.cabecalho-do-cliente", "");
+        // Clientes inativos somem do mapa; com o limite de clientes, sai quem está há mais tempo sem requisições
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("codechella.limites.clientes-maximos", Long.class, 100_000L))
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Na retomada de uma requisição assíncrona a vaga já foi adquirida
+        if (!(handler instanceof HandlerMethod metodo) || request.getAttribute(AQUISICAO) != null) return true;
+        String endpoint = metodo.getMethod().getName();
+
+        BaldeDeFichas balde = baldes.get(endpoint + "|" + cliente(request), k -> novoBalde(endpoint));
+        if (!balde.tentarConsumir()) {
+            rejeitar(endpoint, "taxa");
+            long espera = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(balde.esperaPorFicha() + 999_999_999L));
+            throw new LimiteExcedidoException(HttpStatus.TOO_MANY_REQUESTS, "Limite de requisições por cliente excedido", espera);
+        }
+
+        LimitadorDeConcorrencia limitador = limitadores.computeIfAbsent(endpoint, this::novoLimitador);
+        if (!limitador.tentarAdquirir()) {
+            rejeitar(endpoint, "concorrencia");
+            throw new LimiteExcedidoException(HttpStatus.SERVICE_UNAVAILABLE, "Serviço sobrecarregado; tente novamente em instantes", 1);
+        }
+        request.setAttribute(AQUISICAO, new Aquisicao(limitador, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(AQUISICAO) instanceof Aquisicao aquisicao)) return;
+        request.removeAttribute(AQUISICAO);
+        aquisicao.limitador().liberar(System.nanoTime() - aquisicao.inicio(), ex != null || response.getStatus() >= 500);
+    }
+
+    private String cliente(HttpServletRequest request) {
+        if (!cabecalhoDoCliente.isEmpty()) {
+            String valor = request.getHeader(cabecalhoDoCliente);
+            if (valor != null && !valor.isBlank()) return valor;
+        }
+        return request.getRemoteAddr();
+    }
+
+    private BaldeDeFichas novoBalde(String endpoint) {
+        return new BaldeDeFichas(propriedade(endpoint, "taxa-por-segundo", Double.class, 50.0),
+                propriedade(endpoint, "rajada", Integer.class, 100));
+    }
+
+    private LimitadorDeConcorrencia novoLimitador(String endpoint) {
+        var limitador = new LimitadorDeConcorrencia(
+                propriedade(endpoint, "concorrencia-inicial", Integer.class, 20),
+                propriedade(endpoint, "concorrencia-minima", Integer.class, 1),
+                propriedade(endpoint, "concorrencia-maxima", Integer.class, 200),
+                propriedade(endpoint, "latencia-alvo", Duration.class, Duration.ofMillis(500)).toNanos());
+        Gauge.builder("codechella.limites.concorrencia.limite", limitador, LimitadorDeConcorrencia::limite)
+                .description("Requisições simultâneas admitidas no endpoint")
+                .tag("endpoint", endpoint)
+                .register(registry);
+        Gauge.builder("codechella.limites.concorrencia.em-andamento", limitador, LimitadorDeConcorrencia::emAndamento)
+                .tag("endpoint", endpoint)
+                .register(registry);
+        return limitador;
+    }
+
+    private void rejeitar(String endpoint, String motivo) {
+        Counter.builder("codechella.limites.rejeicoes")
+                .description("Requisições recusadas por limite de taxa ou de concorrência")
+                .tag("endpoint", endpoint)
+                .tag("motivo", motivo)
+                .register(registry)
+                .increment();
+    }
+
+    private <T> T propriedade(String endpoint, String nome, Class<T> tipo, T padrao) {
+        T especifica = environment.getProperty("codechella.limites." + endpoint + "." + nome, tipo);
+        if (especifica != null) return especifica;
+        return environment.getProperty("codechella.limites.padrao." + nome, tipo, padrao);
+    }
+}
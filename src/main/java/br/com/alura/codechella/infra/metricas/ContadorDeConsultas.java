@@ -0,0 +1,26 @@
+package br.com.alura.codechella.infra.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread corrente, para medir consultas por requisição.
+ * Registrado em {@code hibernate.session_factory.statement_inspector}; não altera o SQL.
+ */
+public class ContadorDeConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        CONTADOR.get()[0]++;
+        return sql;
+    }
+
+    public static void zerar() {
+        CONTADOR.get()[0] = 0;
+    }
+
+    public static int total() {
+        return CONTADOR.get()[0];
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.alura.codechella.infra.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Publica {@code codechella.db.consultas} com a quantidade de comandos SQL de cada requisição,
+ * separada por método e rota.
+ */
+public class MetricasDeConsultasInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    public MetricasDeConsultasInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorDeConsultas.zerar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("codechella.db.consultas")
+                .description("Comandos SQL executados por requisição")
+                .baseUnit("consultas")
+                .tag("method", request.getMethod())
+                .tag("uri", rota == null ? "UNKNOWN" : rota.toString())
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(ContadorDeConsultas.total());
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.alura.codechella.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Conta as falhas de validação de cadastro em {@code codechella.validacao.falhas}, com o motivo na tag {@code motivo}.
+ */
+@Component
+public class MetricasDeValidacao {
+
+    // Mensagens do domínio e campos do modelo JPA, ambos levados ao mesmo motivo
+    private static final Map<String, String> MOTIVOS = Map.of(
+            "CPF inválido", "cpf",
+            "E-mail inválido", "email",
+            "CEP inválido", "cep",
+            "cpf", "cpf",
+            "email", "email",
+            "endereco.cep", "cep");
+
+    private final MeterRegistry registry;
+
+    public MetricasDeValidacao(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param mensagemOuCampo A mensagem de erro do domínio ou o caminho do campo rejeitado pela Bean Validation.
+     */
+    public void registrarFalha(String mensagemOuCampo) {
+        Counter.builder("codechella.validacao.falhas")
+                .description("Cadastros rejeitados na validação, por motivo")
+                .tag("motivo", MOTIVOS.getOrDefault(mensagemOuCampo, "outro"))
+                .register(registry)
+                .increment();
+    }
+}
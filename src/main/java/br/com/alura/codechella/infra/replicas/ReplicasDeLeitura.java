@@ -0,0 +1,192 @@
+package br.com.alura.codechella.infra.replicas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Réplicas de leitura usadas em rodízio pelas transações somente leitura. Uma verificação periódica testa a conexão
+ * de cada réplica e mede o atraso de replicação pela consulta configurada; a réplica fora do ar ou com atraso acima
+ * do máximo sai do rodízio até a verificação seguinte. Sem nenhuma disponível, a leitura volta ao primário.
+ * <p>
+ * Publica {@code codechella.replicas.disponivel} e {@code codechella.replicas.atraso} por réplica e
+ * {@code codechella.replicas.desvios}, as leituras que foram ao primário por falta de réplica.
+ */
+public class ReplicasDeLeitura implements SmartLifecycle, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasDeLeitura.class);
+    private static final int TEMPO_LIMITE_DA_VERIFICACAO_SEGUNDOS = 2;
+
+    private static final class Replica {
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile boolean disponivel;
+        private volatile double atrasoSegundos;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final double atrasoMaximoSegundos;
+    private final String consultaDeAtraso;
+    private final Duration intervaloDeVerificacao;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Counter desvios;
+
+    private ScheduledExecutorService verificador;
+
+    /**
+     * @param replicas               Um {@link DataSource} por réplica, na ordem do rodízio.
+     * @param atrasoMaximo           Atraso de replicação acima do qual a réplica deixa de receber leituras.
+     * @param consultaDeAtraso       SQL que devolve o atraso da réplica em segundos; em branco, o atraso é zero.
+     * @param intervaloDeVerificacao Intervalo entre as verificações de conexão e atraso.
+     */
+    public ReplicasDeLeitura(List<DataSource> replicas, Duration atrasoMaximo, String consultaDeAtraso,
+                             Duration intervaloDeVerificacao, MeterRegistry registry) {
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica("replica-" + i, replicas.get(i)))
+                .toList();
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+        this.consultaDeAtraso = consultaDeAtraso;
+        this.intervaloDeVerificacao = intervaloDeVerificacao;
+        this.desvios = Counter.builder("codechella.replicas.desvios")
+                .description("Leituras enviadas ao primário por não haver réplica disponível")
+                .register(registry);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("codechella.replicas.disponivel", replica, r -> r.disponivel ? 1 : 0)
+                    .tag("replica", replica.nome)
+                    .register(registry);
+            Gauge.builder("codechella.replicas.atraso", replica, r -> r.atrasoSegundos)
+                    .tag("replica", replica.nome)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * {@link DataSource} das leituras: a próxima réplica disponível do rodízio ou, sem nenhuma, o primário.
+     * A réplica que recusar a conexão sai do rodízio na hora e a leitura segue para o primário.
+     */
+    public DataSource comReservaNo(DataSource primario) {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Replica replica = escolher();
+                if (replica != null) {
+                    try {
+                        return replica.dataSource.getConnection();
+                    } catch (SQLException e) {
+                        marcarIndisponivel(replica, e);
+                    }
+                }
+                desvios.increment();
+                return primario.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String usuario, String senha) throws SQLException {
+                throw new SQLFeatureNotSupportedException("As réplicas usam as credenciais configuradas");
+            }
+        };
+    }
+
+    /**
+     * Testa a conexão e mede o atraso de cada réplica, atualizando quem participa do rodízio.
+     */
+    public void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                if (!conexao.isValid(TEMPO_LIMITE_DA_VERIFICACAO_SEGUNDOS))
+                    throw new SQLException("Conexão inválida");
+                replica.atrasoSegundos = medirAtraso(conexao);
+                boolean disponivel = replica.atrasoSegundos <= atrasoMaximoSegundos;
+                if (disponivel != replica.disponivel)
+                    log.info("Réplica {} {} (atraso de {} s)", replica.nome, disponivel ? "entrou no rodízio" : "saiu do rodízio",
+                            replica.atrasoSegundos);
+                replica.disponivel = disponivel;
+            } catch (SQLException | RuntimeException e) {
+                marcarIndisponivel(replica, e);
+            }
+        }
+    }
+
+    public long disponiveis() {
+        return replicas.stream().filter(r -> r.disponivel).count();
+    }
+
+    private Replica escolher() {
+        int quantidade = replicas.size();
+        if (quantidade == 0) return null;
+        int inicio = Math.floorMod(proxima.getAndIncrement(), quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Replica replica = replicas.get((inicio + i) % quantidade);
+            if (replica.disponivel) return replica;
+        }
+        return null;
+    }
+
+    private double medirAtraso(Connection conexao) throws SQLException {
+        if (consultaDeAtraso == null || consultaDeAtraso.isBlank()) return 0;
+        try (Statement comando = conexao.createStatement()) {
+            comando.setQueryTimeout(TEMPO_LIMITE_DA_VERIFICACAO_SEGUNDOS);
+            try (ResultSet resultado = comando.executeQuery(consultaDeAtraso)) {
+                // Sem linha ou nulo: nada a reaplicar, ou a conexão não é de uma réplica
+                return resultado.next() ? resultado.getDouble(1) : 0;
+            }
+        }
+    }
+
+    private void marcarIndisponivel(Replica replica, Exception causa) {
+        if (replica.disponivel) log.warn("Réplica {} saiu do rodízio: {}", replica.nome, causa.getMessage());
+        replica.disponivel = false;
+    }
+
+    @Override
+    public void start() {
+        verificador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "codechella-verificador-de-replicas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        verificador.scheduleWithFixedDelay(this::verificar, 0, intervaloDeVerificacao.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        verificador.shutdownNow();
+        verificador = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return verificador != null;
+    }
+
+    // Os pools das réplicas pertencem a este objeto: fecham junto com ele
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas)
+            if (replica.dataSource instanceof AutoCloseable pool) pool.close();
+    }
+}
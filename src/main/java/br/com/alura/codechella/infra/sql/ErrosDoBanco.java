@@ -0,0 +1,64 @@
+package br.com.alura.codechella.infra.sql;
+
+import java.sql.SQLException;
+
+/**
+ * Classifica erros de gravação pelo SQLState da {@link SQLException} na cadeia de causas, e não pela mensagem,
+ * que muda de banco para banco e de versão para versão.
+ */
+public final class ErrosDoBanco {
+
+    // unique_violation, igual no PostgreSQL e no H2
+    private static final String VIOLACAO_DE_UNICIDADE = "23505";
+    // not_null_violation e string_data_right_truncation
+    private static final String VALOR_NULO = "23502";
+    private static final String VALOR_LONGO_DEMAIS = "22001";
+
+    private ErrosDoBanco() {
+    }
+
+    /**
+     * @return Se o erro foi a violação de um índice único, como o de CPF ou o de e-mail.
+     */
+    public static boolean violouUnicidade(Throwable erro) {
+        return VIOLACAO_DE_UNICIDADE.equals(sqlState(erro));
+    }
+
+    /**
+     * @return Se o banco recusou os próprios dados: classe 22 (valor inválido, como um texto longo demais) ou 23
+     * (violação de restrição). Repetir a gravação daria o mesmo erro; quedas de conexão, timeouts e impasses
+     * não entram aqui.
+     */
+    public static boolean recusouOsDados(Throwable erro) {
+        String sqlState = sqlState(erro);
+        return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+    }
+
+    /**
+     * Motivo estável, para relatórios e respostas, de um erro de gravação: a mensagem original traz o texto do
+     * driver, nomes internos de tabelas e índices e até os valores gravados.
+     *
+     * @return Um dos motivos fixos pela classe do SQLState, ou {@code null} se o banco não recusou os dados.
+     */
+    public static String motivo(Throwable erro) {
+        String sqlState = sqlState(erro);
+        if (sqlState == null) return null;
+        return switch (sqlState) {
+            case VIOLACAO_DE_UNICIDADE -> "Usuário já cadastrado";
+            case VALOR_NULO -> "Campo obrigatório ausente";
+            case VALOR_LONGO_DEMAIS -> "Valor maior que o tamanho da coluna";
+            default -> sqlState.startsWith("23") ? "Dados fora das restrições do cadastro"
+                    : sqlState.startsWith("22") ? "Valor inválido para a coluna" : null;
+        };
+    }
+
+    /**
+     * @return O SQLState da primeira {@link SQLException} na cadeia de causas que o informe, ou {@code null}.
+     */
+    static String sqlState(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause() == causa ? null : causa.getCause()) {
+            if (causa instanceof SQLException sql && sql.getSQLState() != null) return sql.getSQLState();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.alura.codechella.infra.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Registra no logger {@code codechella.consultas-lentas} os comandos SQL que levarem pelo menos o limite configurado,
+ * com duração, quantidade de parâmetros e tamanho do lote. A medição e a contagem dos parâmetros ligados são do
+ * datasource-proxy; aqui ficam só o limite, a amostragem e o formato da linha.
+ */
+public class MonitorDeConsultasLentas {
+
+    private static final Logger LOG = LoggerFactory.getLogger("codechella.consultas-lentas");
+
+    private final long limiteMs;
+    private final double amostragem;
+
+    /**
+     * @param limiteMs   Duração mínima, em milissegundos, para um comando ser registrado.
+     * @param amostragem Fração dos comandos lentos que é registrada, entre 0 e 1.
+     */
+    public MonitorDeConsultasLentas(long limiteMs, double amostragem) {
+        this.limiteMs = limiteMs;
+        this.amostragem = amostragem;
+    }
+
+    /**
+     * Envolve {@code dataSource} num proxy do datasource-proxy. O {@code DataSource} original, como o pool do Hikari,
+     * continua acessível por {@link DataSource#unwrap}.
+     */
+    public DataSource envolver(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("consultas-lentas")
+                .afterQuery(this::registrar)
+                .build();
+    }
+
+    private void registrar(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        if (execucao.getElapsedTime() < limiteMs) return;
+        if (amostragem < 1 && ThreadLocalRandom.current().nextDouble() >= amostragem) return;
+        // Num lote de PreparedStatement, cada item tem a própria lista de parâmetros, sempre do mesmo tamanho
+        int parametros = consultas.stream()
+                .mapToInt(c -> c.getParametersList().isEmpty() ? 0 : c.getParametersList().get(0).size())
+                .sum();
+        String sql = consultas.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        LOG.info("consulta_lenta duracao_ms={} parametros={} lote={} sql=\"{}\"",
+                execucao.getElapsedTime(), parametros, execucao.getBatchSize(), sql.replace('\n', ' '));
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.alura.codechella.model;
+
+import br.com.alura.codechella.model.validacao.CepValido;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Embeddable
+public class Endereco {
+    @NotBlank
+    @CepValido
+    private String cep;
+    @NotNull
+    private Integer numero;
+    @Size(max = 255)
+    private String complemento;
+
+    public String getCep() {
+        return cep;
+    }
+
+    public void setCep(String cep) {
+        this.cep = cep;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public void setNumero(Integer numero) {
+        this.numero = numero;
+    }
+
+    public String getComplemento() {
+        return complemento;
+    }
+
+    public void setComplemento(String complemento) {
+        this.complemento = complemento;
+    }
+}
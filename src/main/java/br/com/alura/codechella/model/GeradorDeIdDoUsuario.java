@@ -0,0 +1,17 @@
+package br.com.alura.codechella.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * A sequência {@code usuarios_seq} com pool de 50, mas respeitando o {@link Usuario#getIdReservado() id reservado}
+ * pela fila de cadastro na própria sequência ao aceitar o cadastro, antes de gravá-lo.
+ */
+public class GeradorDeIdDoUsuario extends SequenceStyleGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object usuario) {
+        Long reservado = ((Usuario) usuario).getIdReservado();
+        return reservado != null ? reservado : super.generate(session, usuario);
+    }
+}
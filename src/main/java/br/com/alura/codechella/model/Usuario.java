@@ -1,23 +1,77 @@
 package br.com.alura.codechella.model;
 
+import br.com.alura.codechella.model.validacao.CpfValido;
+import br.com.alura.codechella.model.validacao.EmailValido;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "usuarios")
+@DynamicUpdate
+@Table(name = "usuarios", indexes = {
+        @Index(name = "ux_usuarios_cpf", columnList = "cpf", unique = true),
+        @Index(name = "ux_usuarios_email", columnList = "email", unique = true)
+})
 public class Usuario {
+    // Sequência com pool: o Hibernate reserva 50 ids por ida ao banco e consegue agrupar os INSERTs em lote,
+    // o que IDENTITY impede por precisar do id gerado a cada linha
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "usuarios_seq")
+    @GenericGenerator(name = "usuarios_seq", type = GeradorDeIdDoUsuario.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "usuarios_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
+    @NotBlank
+    @CpfValido
     private String cpf;
+    // Tamanhos das colunas varchar(255): um valor maior é recusado na validação, antes de chegar ao banco
+    @NotBlank
+    @Size(max = 255)
     private String nome;
+    @NotNull
     private LocalDate nascimento;
+    @NotBlank
+    @EmailValido
+    @Size(max = 255)
     private String email;
+    // Embutido na própria linha de usuarios: listar usuários com endereço continua sendo uma única consulta
+    @Embedded
+    @Valid
+    private Endereco endereco;
+    // Base do ETag e do Last-Modified: mudam a cada UPDATE sem que seja preciso comparar o conteúdo
+    @Version
+    @ColumnDefault("0")
+    @JsonIgnore
+    private Long versao;
+    // Id já reservado em usuarios_seq pela fila de cadastro, usado pelo gerador no lugar do próximo do pool
+    @Transient
+    @JsonIgnore
+    private Long idReservado;
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    @JsonIgnore
+    private Instant atualizadoEm;
 
     public Long getId() {
         return id;
@@ -58,4 +112,28 @@ public class Usuario {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    public Endereco getEndereco() {
+        return endereco;
+    }
+
+    public void setEndereco(Endereco endereco) {
+        this.endereco = endereco;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public Long getIdReservado() {
+        return idReservado;
+    }
+
+    public void setIdReservado(Long idReservado) {
+        this.idReservado = idReservado;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
 }
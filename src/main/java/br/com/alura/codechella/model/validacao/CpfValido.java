@@ -0,0 +1,25 @@
+package br.com.alura.codechella.model.validacao;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Aplica ao modelo JPA a mesma regra de {@link br.com.alura.codechella.domain.entities.usuario.ValidadorDeDocumentos#isCpfValido(String)}.
+ */
+@Documented
+@Constraint(validatedBy = ValidadorDeCpf.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CpfValido {
+    String message() default "CPF inválido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,14 @@
+package br.com.alura.codechella.model.validacao;
+
+import br.com.alura.codechella.domain.entities.usuario.ValidadorDeDocumentos;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class ValidadorDeCpf implements ConstraintValidator<CpfValido, String> {
+
+    @Override
+    public boolean isValid(String valor, ConstraintValidatorContext contexto) {
+        // Valor ausente é responsabilidade de @NotBlank
+        return valor == null || ValidadorDeDocumentos.isCpfValido(valor);
+    }
+}
@@ -1,7 +1,63 @@
 package br.com.alura.codechella.repository;
 
+import br.com.alura.codechella.dto.CpfDoUsuario;
+import br.com.alura.codechella.dto.DocumentosDoUsuario;
 import br.com.alura.codechella.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
+
+    Optional<Usuario> findByCpf(String cpf);
+
+    boolean existsByCpf(String cpf);
+
+    boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<DocumentosDoUsuario> findDocumentosBy();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<CpfDoUsuario> findCpfsBy();
+
+    @Query("select u.id from Usuario u where u.cpf = :cpf")
+    Optional<Long> buscarIdPorCpf(@Param("cpf") String cpf);
+
+    /**
+     * Avança {@code usuarios_seq}, que anda de 50 em 50, e devolve o maior id de um bloco que o Hibernate nunca
+     * vai usar: os ids de {@code valor - 49} a {@code valor} ficam reservados para quem chamou.
+     * Transação de escrita: uma réplica de leitura não avança a sequência.
+     */
+    @Transactional
+    @Query(value = "select nextval('usuarios_seq')", nativeQuery = true)
+    long reservarBlocoDeIds();
+
+    /**
+     * Busca a próxima página de usuários por keyset: percorre o índice da chave primária a partir
+     * do último id já entregue, sem OFFSET, com custo constante independente da posição na tabela.
+     */
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    /**
+     * Percorre todos os usuários com um cursor JDBC, trazendo 500 linhas por ida ao banco.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @Query("select u from Usuario u order by u.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Usuario> streamTodosOrdenadosPorId();
 }
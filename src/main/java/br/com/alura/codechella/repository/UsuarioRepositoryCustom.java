@@ -0,0 +1,19 @@
+package br.com.alura.codechella.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface UsuarioRepositoryCustom {
+
+    Set<String> CAMPOS_PROJETAVEIS = Set.of("id", "cpf", "nome", "nascimento", "email", "endereco");
+
+    /**
+     * Busca por keyset só as colunas dos campos pedidos, sem instanciar entidades nem registrá-las
+     * no contexto de persistência. O {@code id} vem sempre, pois é a base do cursor.
+     *
+     * @param campos Nomes contidos em {@link #CAMPOS_PROJETAVEIS}.
+     * @return Um mapa por usuário, com os campos na ordem pedida.
+     */
+    List<Map<String, Object>> buscarCamposPorKeyset(Set<String> campos, long aposId, int limite);
+}
@@ -0,0 +1,65 @@
+package br.com.alura.codechella.repository;
+
+import br.com.alura.codechella.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class UsuarioRepositoryCustomImpl implements UsuarioRepositoryCustom {
+
+    private static final List<String> CAMPOS_DO_ENDERECO = List.of("cep", "numero", "complemento");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> buscarCamposPorKeyset(Set<String> campos, long aposId, int limite) {
+        Set<String> pedidos = new LinkedHashSet<>();
+        pedidos.add("id");
+        pedidos.addAll(campos);
+
+        var cb = entityManager.getCriteriaBuilder();
+        var consulta = cb.createTupleQuery();
+        Root<Usuario> usuario = consulta.from(Usuario.class);
+        List<Selection<?>> colunas = new ArrayList<>();
+        for (String campo : pedidos) {
+            if (campo.equals("endereco")) {
+                CAMPOS_DO_ENDERECO.forEach(c -> colunas.add(usuario.get("endereco").get(c).alias("endereco." + c)));
+            } else {
+                colunas.add(usuario.get(campo).alias(campo));
+            }
+        }
+        consulta.multiselect(colunas)
+                .where(cb.greaterThan(usuario.get("id"), aposId))
+                .orderBy(cb.asc(usuario.get("id")));
+
+        List<Tuple> linhas = entityManager.createQuery(consulta).setMaxResults(limite).getResultList();
+        List<Map<String, Object>> resultado = new ArrayList<>(linhas.size());
+        for (Tuple linha : linhas) resultado.add(paraMapa(linha, pedidos));
+        return resultado;
+    }
+
+    private static Map<String, Object> paraMapa(Tuple linha, Set<String> pedidos) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        for (String campo : pedidos) {
+            if (!campo.equals("endereco")) {
+                mapa.put(campo, linha.get(campo));
+                continue;
+            }
+            Map<String, Object> endereco = new LinkedHashMap<>();
+            CAMPOS_DO_ENDERECO.forEach(c -> endereco.put(c, linha.get("endereco." + c)));
+            // Embeddable com todas as colunas nulas é um usuário sem endereço
+            mapa.put(campo, endereco.values().stream().allMatch(v -> v == null) ? null : endereco);
+        }
+        return mapa;
+    }
+}
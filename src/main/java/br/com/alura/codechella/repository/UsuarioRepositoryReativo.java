@@ -0,0 +1,46 @@
+package br.com.alura.codechella.repository;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Leitura de usuários pelo R2DBC, sem JPA: as linhas chegam conforme a demanda de quem assina o {@link Flux},
+ * e nenhuma thread fica bloqueada esperando o banco.
+ */
+@Repository
+public class UsuarioRepositoryReativo {
+
+    private static final String KEYSET = """
+            select id, cpf, nome, nascimento, email, cep, numero, complemento
+              from usuarios
+             where id > :aposId
+             order by id
+             limit :limite
+            """;
+
+    private final DatabaseClient cliente;
+
+    public UsuarioRepositoryReativo(DatabaseClient cliente) {
+        this.cliente = cliente;
+    }
+
+    public Flux<Usuario> buscarAposId(long aposId, int limite) {
+        return cliente.sql(KEYSET)
+                .bind("aposId", aposId)
+                .bind("limite", limite)
+                .map(UsuarioRepositoryReativo::paraUsuario)
+                .all();
+    }
+
+    private static Usuario paraUsuario(Readable linha) {
+        return FabricaDeUsuario.reconstituir(linha.get("id", Long.class), linha.get("cpf", String.class),
+                linha.get("nome", String.class), linha.get("nascimento", LocalDate.class), linha.get("email", String.class),
+                linha.get("cep", String.class), linha.get("numero", Integer.class), linha.get("complemento", String.class));
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.PaginaDaBusca;
+import br.com.alura.codechella.model.Usuario;
+
+/**
+ * Busca por parte do nome ou do e-mail, ordenada por relevância. No Postgres usa índices de trigramas;
+ * em outros bancos (H2 nos testes), um índice equivalente em memória.
+ */
+public interface BuscaDeUsuarios {
+
+    int TAMANHO_MAXIMO_PAGINA = 100;
+
+    // Um termo mais curto não forma trigrama completo: o ILIKE viraria uma leitura da tabela inteira
+    int TAMANHO_MINIMO_DO_TERMO = 3;
+
+    // Páginas profundas de uma busca por relevância raramente são lidas e custam o mesmo que todas as anteriores
+    int RESULTADOS_MAXIMOS = 1000;
+
+    /**
+     * @throws IllegalArgumentException se o termo tiver menos de {@link #TAMANHO_MINIMO_DO_TERMO} caracteres
+     *                                  ou a página passar de {@link #RESULTADOS_MAXIMOS}.
+     */
+    PaginaDaBusca buscar(String termo, int pagina, int tamanho);
+
+    /**
+     * Chamado pelo {@link IndexadorDeBusca} após o commit de cada usuário gravado ou alterado.
+     * Índices mantidos pelo banco ignoram.
+     */
+    default void indexar(Usuario usuario) {
+    }
+
+    static void validar(String termo, int pagina, int tamanho) {
+        if (termo == null || termo.isBlank()) throw new IllegalArgumentException("Termo de busca vazio");
+        if (termo.strip().length() < TAMANHO_MINIMO_DO_TERMO)
+            throw new IllegalArgumentException("Termo de busca com menos de " + TAMANHO_MINIMO_DO_TERMO + " caracteres");
+        if (pagina < 0 || tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA)
+            throw new IllegalArgumentException("Página ou tamanho inválidos");
+        if ((long) (pagina + 1) * tamanho > RESULTADOS_MAXIMOS)
+            throw new IllegalArgumentException("Busca limitada aos " + RESULTADOS_MAXIMOS + " resultados mais relevantes; refine o termo");
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.PaginaDaBusca;
+import br.com.alura.codechella.dto.ResultadoDaBusca;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas em memória com a mesma semântica do {@code pg_trgm}: palavras separadas por
+ * caracteres não alfanuméricos, cada uma com dois espaços antes e um depois, e similaridade como a razão
+ * entre trigramas em comum e trigramas distintos. Só os usuários que compartilham algum trigrama com o termo
+ * são avaliados.
+ */
+public class BuscaDeUsuariosEmMemoria implements BuscaDeUsuarios {
+
+    // Mesmo limiar padrão do operador % do pg_trgm
+    private static final double LIMIAR_DE_SIMILARIDADE = 0.3;
+
+    private record Entrada(Long id, String nome, String email, Set<String> trigramasDoNome, Set<String> trigramasDoEmail) {
+    }
+
+    private final UsuarioRepository repository;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> idsPorTrigrama = new ConcurrentHashMap<>();
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    public BuscaDeUsuariosEmMemoria(UsuarioRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        try (Stream<Usuario> usuarios = repository.streamTodosOrdenadosPorId()) {
+            usuarios.forEach(this::indexar);
+        }
+    }
+
+    @Override
+    public void indexar(Usuario usuario) {
+        var nova = new Entrada(usuario.getId(), usuario.getNome(), usuario.getEmail(),
+                trigramas(usuario.getNome()), trigramas(usuario.getEmail()));
+        escrita.lock();
+        try {
+            Entrada anterior = entradas.put(nova.id(), nova);
+            if (anterior != null) {
+                paraCadaTrigrama(anterior, t -> idsPorTrigrama.computeIfPresent(t, (k, ids) -> {
+                    ids.remove(anterior.id());
+                    return ids.isEmpty() ? null : ids;
+                }));
+            }
+            paraCadaTrigrama(nova, t -> idsPorTrigrama.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet()).add(nova.id()));
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Override
+    public PaginaDaBusca buscar(String termo, int pagina, int tamanho) {
+        BuscaDeUsuarios.validar(termo, pagina, tamanho);
+        String normalizado = termo.strip().toLowerCase(Locale.ROOT);
+        Set<String> doTermo = trigramas(normalizado);
+
+        Set<Long> candidatos = new HashSet<>();
+        doTermo.forEach(t -> candidatos.addAll(idsPorTrigrama.getOrDefault(t, Set.of())));
+
+        List<ResultadoDaBusca> encontrados = new ArrayList<>();
+        for (Long id : candidatos) {
+            Entrada entrada = entradas.get(id);
+            if (entrada == null) continue;
+            String nome = entrada.nome().toLowerCase(Locale.ROOT);
+            String email = entrada.email().toLowerCase(Locale.ROOT);
+            double similaridade = Math.max(similaridade(doTermo, entrada.trigramasDoNome()),
+                    similaridade(doTermo, entrada.trigramasDoEmail()));
+            if (similaridade < LIMIAR_DE_SIMILARIDADE && !nome.contains(normalizado) && !email.contains(normalizado))
+                continue;
+            double relevancia = nome.startsWith(normalizado) || email.startsWith(normalizado) ? 1 : similaridade;
+            encontrados.add(new ResultadoDaBusca(id, entrada.nome(), entrada.email(), relevancia));
+        }
+        encontrados.sort(Comparator.comparingDouble(ResultadoDaBusca::relevancia).reversed()
+                .thenComparing(ResultadoDaBusca::id));
+
+        int inicio = Math.min(pagina * tamanho, encontrados.size());
+        int fim = Math.min(inicio + tamanho, encontrados.size());
+        return new PaginaDaBusca(List.copyOf(encontrados.subList(inicio, fim)), pagina, fim < encontrados.size());
+    }
+
+    static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        if (texto == null) return trigramas;
+        for (String palavra : texto.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (palavra.isEmpty()) continue;
+            String comMargens = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= comMargens.length(); i++) trigramas.add(comMargens.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    static double similaridade(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        int emComum = 0;
+        for (String t : a) if (b.contains(t)) emComum++;
+        return (double) emComum / (a.size() + b.size() - emComum);
+    }
+
+    private static void paraCadaTrigrama(Entrada entrada, java.util.function.Consumer<String> acao) {
+        entrada.trigramasDoNome().forEach(acao);
+        entrada.trigramasDoEmail().forEach(acao);
+    }
+}
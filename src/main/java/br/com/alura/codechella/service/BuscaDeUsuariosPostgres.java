@@ -0,0 +1,53 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.PaginaDaBusca;
+import br.com.alura.codechella.dto.ResultadoDaBusca;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Busca com {@code pg_trgm}: os índices GIN de trigramas em {@code nome} e {@code email} atendem tanto o
+ * {@code ILIKE '%termo%'} quanto o operador de similaridade {@code %}, então o custo depende do número de
+ * candidatos, não do tamanho da tabela. A extensão e os índices são criados pela migração
+ * {@code db/migration/postgresql/V3__cria_indices_de_trigramas.sql}.
+ */
+public class BuscaDeUsuariosPostgres implements BuscaDeUsuarios {
+
+    private static final String BUSCA = """
+            select id, nome, email,
+                   greatest(similarity(nome, :termo), similarity(email, :termo),
+                            case when lower(nome) like :prefixo or lower(email) like :prefixo then 1 else 0 end) as relevancia
+              from usuarios
+             where nome ilike :contem or email ilike :contem or nome % :termo or email % :termo
+             order by relevancia desc, id
+             limit :limite offset :deslocamento
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public BuscaDeUsuariosPostgres(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public PaginaDaBusca buscar(String termo, int pagina, int tamanho) {
+        BuscaDeUsuarios.validar(termo, pagina, tamanho);
+        String normalizado = termo.strip().toLowerCase(Locale.ROOT);
+        String literal = normalizado.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        var parametros = new MapSqlParameterSource()
+                .addValue("termo", normalizado)
+                .addValue("prefixo", literal + "%")
+                .addValue("contem", "%" + literal + "%")
+                .addValue("limite", tamanho + 1)
+                .addValue("deslocamento", pagina * tamanho);
+        List<ResultadoDaBusca> resultados = jdbc.query(BUSCA, parametros, (rs, i) -> new ResultadoDaBusca(
+                rs.getLong("id"), rs.getString("nome"), rs.getString("email"), rs.getDouble("relevancia")));
+
+        boolean temProxima = resultados.size() > tamanho;
+        return new PaginaDaBusca(temProxima ? resultados.subList(0, tamanho) : resultados, pagina, temProxima);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.alura.codechella.service;
+
+/**
+ * O usuário mudou desde a versão que o cliente informou em {@code If-Match}.
+ */
+public class ConflitoDeVersaoException extends RuntimeException {
+
+    public ConflitoDeVersaoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.alura.codechella.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica o cursor opaco usado na paginação por keyset de usuários.
+ * O cursor carrega apenas o id do último usuário entregue.
+ */
+public final class CursorDeUsuario {
+
+    private CursorDeUsuario() {
+    }
+
+    public static String codificar(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(ultimoId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param cursor Cursor recebido do cliente; {@code null} ou vazio indica o início da listagem.
+     * @return O id a partir do qual a próxima página deve começar.
+     * @throws IllegalArgumentException se o cursor não tiver sido gerado por {@link #codificar(Long)}.
+     */
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return 0L;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
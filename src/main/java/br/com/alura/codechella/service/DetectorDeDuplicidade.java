@@ -0,0 +1,71 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.DocumentosDoUsuario;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Detecta CPF e e-mail já cadastrados. Filtros de Bloom em memória descartam sem ir ao banco
+ * o caso comum de usuário novo; só quando o filtro responde "talvez" é feita a consulta pelo índice único.
+ * Os índices únicos da tabela continuam sendo a garantia final contra duplicidade.
+ */
+@Component
+public class DetectorDeDuplicidade {
+
+    private final UsuarioRepository repository;
+    private final FiltroDeBloom cpfs;
+    private final FiltroDeBloom emails;
+
+    public DetectorDeDuplicidade(UsuarioRepository repository,
+                                 @Value("${codechella.duplicidade.capacidade-esperada:5000000}") long capacidadeEsperada,
+                                 @Value("${codechella.duplicidade.taxa-de-falsos-positivos:0.01}") double taxaDeFalsosPositivos) {
+        this.repository = repository;
+        this.cpfs = new FiltroDeBloom(capacidadeEsperada, taxaDeFalsosPositivos);
+        this.emails = new FiltroDeBloom(capacidadeEsperada, taxaDeFalsosPositivos);
+    }
+
+    // Antes de quem cadastra já na subida, como a importação de arquivo
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        try (Stream<DocumentosDoUsuario> documentos = repository.findDocumentosBy()) {
+            documentos.forEach(d -> {
+                cpfs.adicionar(d.cpf());
+                emails.adicionar(d.email());
+            });
+        }
+    }
+
+    /**
+     * @throws UsuarioDuplicadoException se o CPF ou o e-mail do usuário já estiverem cadastrados.
+     */
+    public void verificar(Usuario usuario) {
+        if (cpfs.talvezContenha(usuario.getCpf()) && repository.existsByCpf(usuario.getCpf()))
+            throw new UsuarioDuplicadoException("CPF já cadastrado");
+        if (emails.talvezContenha(usuario.getEmail()) && repository.existsByEmail(usuario.getEmail()))
+            throw new UsuarioDuplicadoException("E-mail já cadastrado");
+    }
+
+    /**
+     * @throws UsuarioDuplicadoException se o e-mail já pertencer a algum usuário.
+     */
+    public void verificarEmail(String email) {
+        if (emails.talvezContenha(email) && repository.existsByEmail(email))
+            throw new UsuarioDuplicadoException("E-mail já cadastrado");
+    }
+
+    public void registrar(Usuario usuario) {
+        cpfs.adicionar(usuario.getCpf());
+        emails.adicionar(usuario.getEmail());
+    }
+}
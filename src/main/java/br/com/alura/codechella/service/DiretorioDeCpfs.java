@@ -0,0 +1,292 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.domain.entities.usuario.ValidadorDeDocumentos;
+import br.com.alura.codechella.dto.CpfDoUsuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Diretório CPF → id para o check-in nos portões. Os 11 dígitos do CPF cabem num {@code long}, e os pares
+ * (CPF, id) ficam lado a lado numa tabela de endereçamento aberto com sondagem linear, num único
+ * {@link LongBuffer} no heap ou, com {@code codechella.diretorio-de-cpfs.fora-do-heap=true}, fora dele:
+ * nenhum objeto por usuário, e uma consulta costuma custar uma única linha de cache.
+ * <p>
+ * As consultas não bloqueiam: leem com a leitura otimista de um {@link StampedLock} e só repetem sob trava
+ * se uma gravação tiver ocorrido no meio. É aquecido a partir do banco na subida e recebe cada usuário cadastrado
+ * pelo {@link UsuarioGravado}, depois do commit. Um CPF ausente é procurado no banco, o que cobre o aquecimento em andamento e
+ * cadastros feitos por outras instâncias; como o CPF de um usuário não muda, o que está no diretório vale sempre.
+ * <p>
+ * Um CPF válido que o banco não conhece fica lembrado como ausente por {@code validade-da-ausencia}, numa segunda
+ * tabela de tamanho fixo em que cada CPF tem uma única posição: repetir o mesmo CPF sem cadastro no portão não
+ * vai ao banco a cada tentativa. A validade é curta porque o cadastro pode ser feito por outra instância; os feitos
+ * nesta apagam a ausência na hora.
+ */
+@Component
+public class DiretorioDeCpfs {
+
+    private static final Logger log = LoggerFactory.getLogger(DiretorioDeCpfs.class);
+
+    // CPF com todos os dígitos iguais é inválido: a chave zero marca posição livre
+    private static final long LIVRE = 0;
+    // Os ids vêm de uma sequência que começa em 1
+    private static final long AUSENTE = 0;
+    private static final double CARGA_MAXIMA = 0.75;
+    // Cada par ocupa dois longs, 16 bytes: 2^26 pares são 1 GiB, e um buffer direto não passa de 2^31 - 1 bytes
+    private static final int POSICOES_MAXIMAS = 1 << 26;
+    private static final long AUSENCIA_CONHECIDA = -1;
+
+    private final UsuarioRepository repository;
+    private final boolean foraDoHeap;
+    private final StampedLock trava = new StampedLock();
+    // Ausências lembradas: o CPF e até quando vale, na posição dada pelo próprio CPF
+    private final long[] ausentes;
+    private final long[] ausentesAte;
+    private final long validadeDaAusenciaEmMillis;
+    private final LongSupplier relogio;
+
+    private LongBuffer tabela;
+    private int quantidade;
+
+    @Autowired
+    public DiretorioDeCpfs(UsuarioRepository repository,
+                           @Value("${codechella.diretorio-de-cpfs.capacidade-inicial:1000000}") int capacidadeInicial,
+                           @Value("${codechella.diretorio-de-cpfs.fora-do-heap:false}") boolean foraDoHeap,
+                           @Value("${codechella.diretorio-de-cpfs.ausencias-lembradas:65536}") int ausenciasLembradas,
+                           @Value("${codechella.diretorio-de-cpfs.validade-da-ausencia:5s}") Duration validadeDaAusencia,
+                           MeterRegistry registry) {
+        this(repository, capacidadeInicial, foraDoHeap, ausenciasLembradas, validadeDaAusencia, registry,
+                System::currentTimeMillis);
+    }
+
+    DiretorioDeCpfs(UsuarioRepository repository, int capacidadeInicial, boolean foraDoHeap, int ausenciasLembradas,
+                    Duration validadeDaAusencia, MeterRegistry registry, LongSupplier relogio) {
+        if (capacidadeInicial <= 0) throw new IllegalArgumentException("Capacidade deve ser positiva");
+        if (ausenciasLembradas <= 0 || ausenciasLembradas > 1 << 30)
+            throw new IllegalArgumentException("Ausências lembradas devem ser de 1 a 2^30");
+        this.repository = repository;
+        this.foraDoHeap = foraDoHeap;
+        int posicoesDeAusencia = Integer.highestOneBit(Math.max(1, ausenciasLembradas - 1)) << 1;
+        this.ausentes = new long[posicoesDeAusencia];
+        this.ausentesAte = new long[posicoesDeAusencia];
+        this.validadeDaAusenciaEmMillis = validadeDaAusencia.toMillis();
+        this.relogio = relogio;
+        this.tabela = alocar(posicoesPara(capacidadeInicial));
+        Gauge.builder("codechella.diretorio-de-cpfs.tamanho", this, DiretorioDeCpfs::tamanho)
+                .description("CPFs no diretório do check-in")
+                .register(registry);
+        Gauge.builder("codechella.diretorio-de-cpfs.memoria", this, d -> d.tabela.capacity() * (double) Long.BYTES)
+                .description("Memória ocupada pela tabela do diretório")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // Um CPF legado fora do formato não derruba a subida: só fica de fora do diretório
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        long ignorados = 0;
+        try (Stream<CpfDoUsuario> cpfs = repository.findCpfsBy()) {
+            for (var iterador = cpfs.iterator(); iterador.hasNext(); ) {
+                CpfDoUsuario c = iterador.next();
+                try {
+                    registrar(c.cpf(), c.id());
+                } catch (IllegalArgumentException e) {
+                    ignorados++;
+                }
+            }
+        }
+        if (ignorados > 0) log.warn("{} usuários com CPF inválido ficaram fora do diretório de CPFs", ignorados);
+    }
+
+    // Só depois do commit, para o check-in não encontrar quem sofreu rollback; alterações não mudam o CPF
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aposGravar(UsuarioGravado evento) {
+        if (evento.novo()) registrar(evento.usuario().getCpf(), evento.usuario().getId());
+    }
+
+    /**
+     * @param cpf O CPF no formato "XXX.XXX.XXX-XX" ou só com os 11 dígitos.
+     * @return O id do usuário com esse CPF, se houver.
+     * @throws IllegalArgumentException se o CPF for inválido.
+     */
+    public OptionalLong buscarId(String cpf) {
+        long chave = chave(cpf);
+        long agora = relogio.getAsLong();
+        long id = buscar(chave, agora);
+        if (id == AUSENCIA_CONHECIDA) return OptionalLong.empty();
+        if (id != AUSENTE) return OptionalLong.of(id);
+
+        String formatado = formatar(chave);
+        if (!ValidadorDeDocumentos.isCpfValido(formatado)) throw new IllegalArgumentException("CPF inválido");
+        var doBanco = repository.buscarIdPorCpf(formatado);
+        if (doBanco.isEmpty()) {
+            lembrarAusencia(chave, agora + validadeDaAusenciaEmMillis);
+            return OptionalLong.empty();
+        }
+        registrar(chave, doBanco.get());
+        return OptionalLong.of(doBanco.get());
+    }
+
+    public void registrar(String cpf, long id) {
+        registrar(chave(cpf), id);
+    }
+
+    public int tamanho() {
+        long carimbo = trava.readLock();
+        try {
+            return quantidade;
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    private long buscar(long chave, long agora) {
+        long carimbo = trava.tryOptimisticRead();
+        long id = procurar(chave, agora);
+        if (trava.validate(carimbo)) return id;
+
+        carimbo = trava.readLock();
+        try {
+            return procurar(chave, agora);
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    private long procurar(long chave, long agora) {
+        long id = procurar(tabela, chave);
+        if (id != AUSENTE) return id;
+        int posicao = espalhar(chave) & (ausentes.length - 1);
+        return ausentes[posicao] == chave && ausentesAte[posicao] > agora ? AUSENCIA_CONHECIDA : AUSENTE;
+    }
+
+    // Cada CPF tem uma única posição: um CPF novo substitui a ausência que estiver ali
+    private void lembrarAusencia(long chave, long ate) {
+        long carimbo = trava.writeLock();
+        try {
+            int posicao = espalhar(chave) & (ausentes.length - 1);
+            ausentes[posicao] = chave;
+            ausentesAte[posicao] = ate;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    private void registrar(long chave, long id) {
+        long carimbo = trava.writeLock();
+        try {
+            int posicoes = tabela.capacity() / 2;
+            if (quantidade + 1 > posicoes * CARGA_MAXIMA) redimensionar(posicoes * 2);
+            if (inserir(tabela, chave, id)) quantidade++;
+            int ausencia = espalhar(chave) & (ausentes.length - 1);
+            if (ausentes[ausencia] == chave) ausentes[ausencia] = LIVRE;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    private void redimensionar(int posicoes) {
+        if (posicoes > POSICOES_MAXIMAS) throw new IllegalStateException("Diretório de CPFs cheio");
+        LongBuffer nova = alocar(posicoes);
+        for (int i = 0; i < tabela.capacity(); i += 2) {
+            long chave = tabela.get(i);
+            if (chave != LIVRE) inserir(nova, chave, tabela.get(i + 1));
+        }
+        tabela = nova;
+    }
+
+    // Numa leitura otimista a tabela pode estar sendo trocada: a máscara vem do próprio buffer, e o resultado
+    // só é usado se a validação confirmar que não houve gravação
+    private static long procurar(LongBuffer tabela, long chave) {
+        int mascara = tabela.capacity() / 2 - 1;
+        int posicao = espalhar(chave) & mascara;
+        for (int sondagens = 0; sondagens <= mascara; sondagens++, posicao = (posicao + 1) & mascara) {
+            long ocupante = tabela.get(2 * posicao);
+            if (ocupante == chave) return tabela.get(2 * posicao + 1);
+            if (ocupante == LIVRE) return AUSENTE;
+        }
+        return AUSENTE;
+    }
+
+    private static boolean inserir(LongBuffer tabela, long chave, long id) {
+        int mascara = tabela.capacity() / 2 - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (true) {
+            long ocupante = tabela.get(2 * posicao);
+            if (ocupante == chave) {
+                tabela.put(2 * posicao + 1, id);
+                return false;
+            }
+            if (ocupante == LIVRE) {
+                tabela.put(2 * posicao + 1, id);
+                tabela.put(2 * posicao, chave);
+                return true;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    // Multiplicação de Fibonacci: CPFs próximos caem em posições distantes
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int posicoesPara(int capacidade) {
+        long minimo = (long) Math.ceil(capacidade / CARGA_MAXIMA);
+        if (minimo > POSICOES_MAXIMAS) throw new IllegalArgumentException("Capacidade acima do máximo do diretório");
+        return Integer.highestOneBit((int) Math.max(2, minimo - 1)) << 1;
+    }
+
+    private LongBuffer alocar(int posicoes) {
+        if (!foraDoHeap) return LongBuffer.allocate(posicoes * 2);
+        return ByteBuffer.allocateDirect(Math.multiplyExact(posicoes * 2, Long.BYTES))
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Converte o CPF, com ou sem a máscara, nos seus 11 dígitos como número.
+     *
+     * @throws IllegalArgumentException se houver outros caracteres ou um total diferente de 11 dígitos.
+     */
+    static long chave(String cpf) {
+        if (cpf == null) throw new IllegalArgumentException("CPF inválido");
+        long chave = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                chave = chave * 10 + (c - '0');
+                digitos++;
+            } else if (c != '.' && c != '-') {
+                throw new IllegalArgumentException("CPF inválido");
+            }
+        }
+        if (digitos != 11 || chave == LIVRE) throw new IllegalArgumentException("CPF inválido");
+        return chave;
+    }
+
+    static String formatar(long chave) {
+        String d = String.format("%011d", chave);
+        return d.substring(0, 3) + '.' + d.substring(3, 6) + '.' + d.substring(6, 9) + '-' + d.substring(9);
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Exporta a base de usuários em NDJSON (um objeto JSON por linha), lendo do banco por cursor
+ * e escrevendo cada linha assim que ela chega, com uso de memória constante.
+ */
+@Service
+public class ExportadorDeUsuarios {
+    private static final int LINHAS_POR_FLUSH = 500;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Escreve todos os usuários em {@code saida}, em ordem de id. A escrita bloqueia quando o cliente
+     * lê devagar, o que segura a leitura do cursor no mesmo ritmo.
+     *
+     * @param saida Fluxo de destino; não é fechado por este método.
+     * @return A quantidade de usuários exportados.
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream saida) throws IOException {
+        long exportados = 0;
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+             Stream<Usuario> usuarios = repository.streamTodosOrdenadosPorId()) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sem o espaço que o Jackson põe entre valores na raiz: a quebra de linha já separa os usuários
+            gerador.setRootValueSeparator(null);
+
+            var iterador = usuarios.iterator();
+            while (iterador.hasNext()) {
+                Usuario usuario = iterador.next();
+                gerador.writeObject(usuario);
+                gerador.writeRaw('\n');
+                // Solta a entidade do contexto de persistência para ele não crescer com a tabela
+                entityManager.detach(usuario);
+
+                if (++exportados % LINHAS_POR_FLUSH == 0) gerador.flush();
+            }
+        }
+        return exportados;
+    }
+}
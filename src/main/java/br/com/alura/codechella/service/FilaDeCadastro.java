@@ -0,0 +1,298 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.domain.entities.usuario.UsuarioInvalidoException;
+import br.com.alura.codechella.dto.ResultadoDoLote.FalhaNoItem;
+import br.com.alura.codechella.dto.StatusDoCadastro;
+import br.com.alura.codechella.dto.StatusDoCadastro.Situacao;
+import br.com.alura.codechella.dto.UsuarioDto;
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastro assíncrono ({@code codechella.cadastro-assincrono.habilitado=true}): a requisição valida o usuário,
+ * registra-o no {@link JournalDeCadastros} e o coloca numa fila limitada; uma thread de gravação esvazia a fila
+ * em lotes pelo {@link ImportadorDeUsuarios}. Com a fila cheia o cadastro é recusado com
+ * {@link FilaDeCadastroCheiaException}, em vez de acumular requisições à espera de conexão.
+ * <p>
+ * O id do usuário é reservado em {@code usuarios_seq} já na aceitação. Só um cadastro cujos dados foram recusados
+ * termina REJEITADO; se a gravação falhar por infraestrutura (banco fora do ar, timeout), o lote continua pendente
+ * e é tentado de novo com espera crescente, de {@link #ESPERA_INICIAL} até {@link #ESPERA_MAXIMA}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "codechella.cadastro-assincrono", name = "habilitado", havingValue = "true")
+public class FilaDeCadastro implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaDeCadastro.class);
+
+    static final Duration ESPERA_INICIAL = Duration.ofMillis(200);
+    static final Duration ESPERA_MAXIMA = Duration.ofSeconds(30);
+
+    // Ids por bloco reservado em usuarios_seq, igual ao incremento da sequência
+    private static final int IDS_POR_BLOCO = 50;
+
+    private record Pendente(UUID protocolo, long usuarioId, Usuario usuario) {
+    }
+
+    private final BlockingQueue<Pendente> fila;
+    private final int tamanhoDoLote;
+    private final JournalDeCadastros journal;
+    private final ImportadorDeUsuarios importador;
+    private final DetectorDeDuplicidade detectorDeDuplicidade;
+    private final UsuarioEntityMapper mapper;
+    private final UsuarioRepository repository;
+
+    // Situação consultável de cada protocolo; só as concluídas ou rejeitadas somem após o prazo de retenção
+    private final Cache<UUID, StatusDoCadastro> situacoes;
+
+    private volatile boolean rodando;
+    private Thread gravador;
+
+    private long proximoIdReservado;
+    private long ultimoIdReservado = -1;
+
+    public FilaDeCadastro(@Value("${codechella.cadastro-assincrono.capacidade:10000}") int capacidade,
+                          @Value("${codechella.cadastro-em-lote.tamanho:500}") int tamanhoDoLote,
+                          @Value("${codechella.cadastro-assincrono.journal:data/cadastros.journal}") Path arquivoDoJournal,
+                          @Value("${codechella.cadastro-assincrono.journal-limite:64MB}") DataSize limiteDoJournal,
+                          @Value("${codechella.cadastro-assincrono.retencao:1h}") Duration retencao,
+                          ObjectMapper objectMapper,
+                          ImportadorDeUsuarios importador,
+                          DetectorDeDuplicidade detectorDeDuplicidade,
+                          UsuarioEntityMapper mapper,
+                          UsuarioRepository repository,
+                          MeterRegistry meterRegistry) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoDoLote = tamanhoDoLote;
+        this.journal = new JournalDeCadastros(arquivoDoJournal, objectMapper, limiteDoJournal.toBytes());
+        this.importador = importador;
+        this.detectorDeDuplicidade = detectorDeDuplicidade;
+        this.mapper = mapper;
+        this.repository = repository;
+        this.situacoes = situacoes(retencao, Ticker.systemTicker());
+        Gauge.builder("codechella.cadastro.fila.tamanho", fila, BlockingQueue::size)
+                .description("Cadastros aceitos aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache das situações por protocolo. Uma situação PENDENTE não expira, pois o cadastro pode ficar na fila
+     * além da retenção enquanto o banco estiver fora do ar; o prazo passa a contar quando ela é substituída pela
+     * situação final.
+     */
+    static Cache<UUID, StatusDoCadastro> situacoes(Duration retencao, Ticker ticker) {
+        long retencaoNanos = retencao.toNanos();
+        return Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfter(new Expiry<UUID, StatusDoCadastro>() {
+                    @Override
+                    public long expireAfterCreate(UUID protocolo, StatusDoCadastro status, long agora) {
+                        return status.situacao() == Situacao.PENDENTE ? Long.MAX_VALUE : retencaoNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID protocolo, StatusDoCadastro status, long agora, long restante) {
+                        return expireAfterCreate(protocolo, status, agora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID protocolo, StatusDoCadastro status, long agora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Aceita o cadastro para gravação posterior. A duplicidade é verificada agora contra o que já está gravado;
+     * dois cadastros iguais na fila ao mesmo tempo são resolvidos pelo índice único na gravação.
+     *
+     * @return A situação PENDENTE com o protocolo a consultar e o id que o usuário terá.
+     * @throws UsuarioDuplicadoException se o CPF ou o e-mail já estiverem cadastrados.
+     * @throws FilaDeCadastroCheiaException se a fila estiver cheia.
+     */
+    public StatusDoCadastro enfileirar(Usuario usuario) {
+        detectorDeDuplicidade.verificar(mapper.toEntity(usuario));
+
+        var protocolo = UUID.randomUUID();
+        long usuarioId = reservarId();
+        var status = StatusDoCadastro.pendente(protocolo, usuarioId);
+        journal.registrarEntrada(protocolo, usuarioId, UsuarioDto.de(usuario));
+        situacoes.put(protocolo, status);
+        if (!fila.offer(new Pendente(protocolo, usuarioId, usuario))) {
+            situacoes.invalidate(protocolo);
+            journal.registrarConclusao(List.of(protocolo));
+            throw new FilaDeCadastroCheiaException();
+        }
+        return status;
+    }
+
+    public Optional<StatusDoCadastro> situacao(UUID protocolo) {
+        return Optional.ofNullable(situacoes.getIfPresent(protocolo));
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    @Override
+    public void start() {
+        Map<UUID, JournalDeCadastros.Entrada> doJournal = journal.abrir();
+        rodando = true;
+        gravador = new Thread(this::gravarEnquantoRodando, "codechella-gravador-de-cadastros");
+        gravador.start();
+
+        if (!doJournal.isEmpty()) log.info("Retomando {} cadastros pendentes do journal", doJournal.size());
+        doJournal.forEach((protocolo, entrada) -> {
+            try {
+                long usuarioId = entrada.usuarioId() != null ? entrada.usuarioId() : reservarId();
+                situacoes.put(protocolo, StatusDoCadastro.pendente(protocolo, usuarioId));
+                fila.put(new Pendente(protocolo, usuarioId, entrada.usuario().paraDominio()));
+            } catch (UsuarioInvalidoException e) {
+                concluir(List.of(new StatusDoCadastro(protocolo, Situacao.REJEITADO, null, e.getMessage())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Para de aceitar itens da fila e espera o lote em gravação terminar. O que ficou na fila continua
+     * no journal e é retomado na próxima inicialização.
+     */
+    @Override
+    public void stop() {
+        rodando = false;
+        try {
+            gravador.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    // Antes do servidor web: o journal já está aberto quando chega a primeira requisição e a fila só
+    // para depois que o servidor deixou de aceitar cadastros
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void gravarEnquantoRodando() {
+        List<Pendente> lote = new ArrayList<>(tamanhoDoLote);
+        Duration espera = Duration.ZERO;
+        while (rodando) {
+            try {
+                if (lote.isEmpty()) {
+                    Pendente primeiro = fila.poll(200, TimeUnit.MILLISECONDS);
+                    if (primeiro == null) continue;
+                    lote.add(primeiro);
+                    fila.drainTo(lote, tamanhoDoLote - 1);
+                }
+                gravar(lote, !espera.isZero());
+                lote.clear();
+                espera = Duration.ZERO;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // O lote continua pendente, no journal e aqui, até o banco voltar
+                espera = espera.isZero() ? ESPERA_INICIAL : min(espera.multipliedBy(2), ESPERA_MAXIMA);
+                log.error("Falha ao gravar lote de {} cadastros, nova tentativa em {} ms", lote.size(),
+                        espera.toMillis(), e);
+                if (!aguardar(espera)) return;
+            }
+        }
+    }
+
+    // Em fatias, para que stop() não espere a espera inteira
+    private boolean aguardar(Duration espera) {
+        long fim = System.nanoTime() + espera.toNanos();
+        try {
+            while (rodando && System.nanoTime() < fim) {
+                Thread.sleep(Math.min(200, TimeUnit.NANOSECONDS.toMillis(fim - System.nanoTime()) + 1));
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * @param novaTentativa Se o lote já falhou antes: a tentativa anterior pode ter gravado antes de perder a
+     *                      conexão, e um id reservado que já está no banco conta como concluído.
+     */
+    private void gravar(List<Pendente> lote, boolean novaTentativa) {
+        List<br.com.alura.codechella.model.Usuario> entidades = lote.stream()
+                .map(p -> {
+                    var entidade = mapper.toEntity(p.usuario());
+                    entidade.setIdReservado(p.usuarioId());
+                    return entidade;
+                })
+                .toList();
+        Map<Long, String> falhas = importador.cadastrarEmLote(entidades.iterator()).falhas().stream()
+                .collect(Collectors.toMap(FalhaNoItem::indice, FalhaNoItem::motivo, (a, b) -> a));
+
+        List<StatusDoCadastro> concluidos = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            UUID protocolo = lote.get(i).protocolo();
+            long usuarioId = lote.get(i).usuarioId();
+            String falha = falhas.get((long) i);
+            concluidos.add(falha == null || novaTentativa && repository.existsById(usuarioId)
+                    ? new StatusDoCadastro(protocolo, Situacao.CONCLUIDO, usuarioId, null)
+                    : new StatusDoCadastro(protocolo, Situacao.REJEITADO, null, falha));
+        }
+        concluir(concluidos);
+    }
+
+    // Distribui os ids de cada bloco de usuarios_seq; o Hibernate usa outros blocos da mesma sequência
+    private synchronized long reservarId() {
+        if (proximoIdReservado > ultimoIdReservado) {
+            ultimoIdReservado = repository.reservarBlocoDeIds();
+            proximoIdReservado = Math.max(1, ultimoIdReservado - IDS_POR_BLOCO + 1);
+        }
+        return proximoIdReservado++;
+    }
+
+    private void concluir(List<StatusDoCadastro> concluidos) {
+        journal.registrarConclusao(concluidos.stream().map(StatusDoCadastro::protocolo).toList());
+        situacoes.putAll(concluidos.stream().collect(Collectors.toMap(StatusDoCadastro::protocolo, Function.identity())));
+    }
+}
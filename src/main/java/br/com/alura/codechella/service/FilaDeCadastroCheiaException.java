@@ -0,0 +1,8 @@
+package br.com.alura.codechella.service;
+
+public class FilaDeCadastroCheiaException extends RuntimeException {
+
+    public FilaDeCadastroCheiaException() {
+        super("Muitos cadastros aguardando gravação; tente novamente em instantes");
+    }
+}
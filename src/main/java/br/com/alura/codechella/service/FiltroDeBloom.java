@@ -0,0 +1,70 @@
+package br.com.alura.codechella.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings, seguro para uso concorrente.
+ * Responde "com certeza ausente" ou "talvez presente", sem falsos negativos.
+ */
+public class FiltroDeBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeDeBits;
+    private final int quantidadeDeHashes;
+
+    /**
+     * @param capacidadeEsperada      Quantidade de elementos para a qual o filtro é dimensionado.
+     * @param taxaDeFalsosPositivos   Taxa de falsos positivos desejada ao atingir a capacidade, entre 0 e 1.
+     */
+    public FiltroDeBloom(long capacidadeEsperada, double taxaDeFalsosPositivos) {
+        if (capacidadeEsperada <= 0) throw new IllegalArgumentException("Capacidade deve ser positiva");
+        if (taxaDeFalsosPositivos <= 0 || taxaDeFalsosPositivos >= 1)
+            throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1");
+
+        long m = (long) Math.ceil(-capacidadeEsperada * Math.log(taxaDeFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64));
+        this.quantidadeDeBits = (long) bits.length() * 64;
+        this.quantidadeDeHashes = Math.max(1, (int) Math.round((double) quantidadeDeBits / capacidadeEsperada * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= quantidadeDeHashes; i++) {
+            long indice = Math.floorMod(h1 + (long) i * h2, quantidadeDeBits);
+            long mascara = 1L << indice;
+            int palavra = (int) (indice >>> 6);
+            if ((bits.get(palavra) & mascara) == 0) bits.getAndAccumulate(palavra, mascara, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * @return false se o valor com certeza nunca foi adicionado; true se talvez tenha sido.
+     */
+    public boolean talvezContenha(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= quantidadeDeHashes; i++) {
+            long indice = Math.floorMod(h1 + (long) i * h2, quantidadeDeBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) return false;
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre os chars, seguido da finalização do MurmurHash3 para espalhar os bits
+    private static long hash64(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
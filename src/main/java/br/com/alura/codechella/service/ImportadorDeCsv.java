@@ -0,0 +1,390 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.dto.ResultadoDaImportacao;
+import br.com.alura.codechella.dto.ResultadoDoLote;
+import br.com.alura.codechella.dto.ResultadoDoLote.FalhaNoItem;
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Importa um CSV de pré-cadastros ({@code cpf,nome,nascimento,email[,cep,numero,complemento]}, em UTF-8, com
+ * cabeçalho opcional e campos entre aspas duplas quando contiverem vírgulas). O arquivo é dividido em blocos de
+ * {@code codechella.importacao.tamanho-do-bloco} terminados em fim de linha, e cada bloco é mapeado em memória e
+ * analisado num {@link ForkJoinPool} próprio: conversão, validação pelo {@link FabricaDeUsuario#criar} e
+ * verificação de duplicidade, inclusive entre as linhas do próprio arquivo. As gravações seguem na ordem do arquivo pelo {@link ImportadorDeUsuarios}, em lotes,
+ * enquanto o grupo de blocos seguinte já está sendo analisado; só dois grupos ficam em memória por vez.
+ * <p>
+ * Cada linha rejeitada, na análise ou na gravação, vai para o relatório com o número da linha e um motivo fixo,
+ * nunca a mensagem do banco. Campos com quebra de linha não são suportados.
+ */
+@Service
+public class ImportadorDeCsv {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportadorDeCsv.class);
+    private static final int COLUNAS_SEM_ENDERECO = 4;
+    private static final int COLUNAS_COM_ENDERECO = 7;
+
+    private record Bloco(long inicio, long fim) {
+    }
+
+    private record Rejeicao(long linha, String motivo) {
+    }
+
+    /**
+     * Linhas contadas a partir do início do bloco; só a gravação, que percorre os blocos em ordem,
+     * sabe quantas linhas vieram antes.
+     */
+    private record BlocoAnalisado(int linhasFisicas, int linhasDeDados, List<Usuario> usuarios, int[] linhasDosUsuarios,
+                                  long[] posicoesDosUsuarios, List<Rejeicao> rejeicoes) {
+    }
+
+    /**
+     * Primeira linha de cada CPF e de cada e-mail do arquivo, pela posição em bytes. Os blocos são analisados em
+     * paralelo, então vence a menor posição, e não a análise que terminou primeiro: a linha cadastrada é sempre a
+     * primeira do arquivo, e as repetições são rejeitadas antes de chegar ao banco.
+     * <p>
+     * Guarda só {@code long}s, em {@link PrimeirasPosicoes}, para caber na memória mesmo com dumps de vários
+     * gigabytes: o CPF pelos seus 11 dígitos e o e-mail por um hash de 64 bits, de 45 a 90 bytes por linha. Dois
+     * e-mails distintos com o mesmo hash, perto de uma chance em quatro mil num arquivo de 10^8 e-mails, fazem o
+     * segundo ser recusado como repetido; a unicidade de fato continua garantida pelo índice único na gravação.
+     */
+    private record PrimeirasOcorrencias(PrimeirasPosicoes cpfs, PrimeirasPosicoes emails) {
+
+        PrimeirasOcorrencias() {
+            this(new PrimeirasPosicoes(), new PrimeirasPosicoes());
+        }
+
+        void registrar(Usuario usuario, long posicao) {
+            cpfs.registrar(DiretorioDeCpfs.chave(usuario.getCpf()), posicao);
+            if (usuario.getEmail() != null) emails.registrar(chaveDoEmail(usuario.getEmail()), posicao);
+        }
+
+        /**
+         * Na análise, acusa a repetição de linhas anteriores já analisadas; na gravação, depois da análise de todos
+         * os blocos anteriores, a resposta é definitiva, pois as linhas ainda em análise vêm depois no arquivo.
+         *
+         * @return O motivo da rejeição, ou {@code null} se a linha for a primeira com o CPF e o e-mail.
+         */
+        String repeticao(Usuario usuario, long posicao) {
+            if (cpfs.primeira(DiretorioDeCpfs.chave(usuario.getCpf())) != posicao) return "CPF repetido no arquivo";
+            if (usuario.getEmail() != null && emails.primeira(chaveDoEmail(usuario.getEmail())) != posicao)
+                return "E-mail repetido no arquivo";
+            return null;
+        }
+
+        // FNV-1a de 64 bits seguido da mistura final do MurmurHash3; o zero, reservado à posição livre, vira um
+        private static long chaveDoEmail(String email) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < email.length(); i++) {
+                h ^= email.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h == 0 ? 1 : h;
+        }
+    }
+
+    @Autowired
+    private ImportadorDeUsuarios importador;
+
+    @Autowired
+    private DetectorDeDuplicidade detectorDeDuplicidade;
+
+    @Autowired
+    private UsuarioEntityMapper mapper;
+
+    @Value("${codechella.importacao.tamanho-do-bloco:4MB}")
+    private DataSize tamanhoDoBloco;
+
+    // Zero usa um núcleo por thread de análise
+    @Value("${codechella.importacao.paralelismo:0}")
+    private int paralelismo;
+
+    /**
+     * @param arquivo   O CSV a importar.
+     * @param relatorio Onde gravar as linhas rejeitadas; substituído se já existir.
+     * @return As contagens e a duração da importação.
+     */
+    public ResultadoDaImportacao importar(Path arquivo, Path relatorio) throws IOException {
+        long inicio = System.nanoTime();
+        int threads = paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors();
+        var pool = new ForkJoinPool(threads);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+             BufferedWriter rejeitadas = Files.newBufferedWriter(relatorio, StandardCharsets.UTF_8)) {
+            rejeitadas.write("linha,motivo\n");
+            List<Bloco> blocos = dividir(canal);
+            var primeiras = new PrimeirasOcorrencias();
+
+            long linhasAnteriores = 0;
+            long linhas = 0;
+            long cadastrados = 0;
+            long rejeitados = 0;
+            ForkJoinTask<List<BlocoAnalisado>> proximoGrupo = analisar(pool, canal, blocos, 0, threads, primeiras);
+            for (int grupo = 0; grupo < blocos.size(); grupo += threads) {
+                List<BlocoAnalisado> analisados = proximoGrupo.join();
+                proximoGrupo = analisar(pool, canal, blocos, grupo + threads, threads, primeiras);
+
+                for (BlocoAnalisado bloco : analisados) {
+                    List<Rejeicao> doBloco = new ArrayList<>(bloco.rejeicoes());
+                    List<Usuario> unicos = new ArrayList<>(bloco.usuarios().size());
+                    int[] linhasDosUnicos = new int[bloco.usuarios().size()];
+                    for (int i = 0; i < bloco.usuarios().size(); i++) {
+                        String repeticao = primeiras.repeticao(bloco.usuarios().get(i), bloco.posicoesDosUsuarios()[i]);
+                        if (repeticao != null) {
+                            doBloco.add(new Rejeicao(bloco.linhasDosUsuarios()[i], repeticao));
+                        } else {
+                            linhasDosUnicos[unicos.size()] = bloco.linhasDosUsuarios()[i];
+                            unicos.add(bloco.usuarios().get(i));
+                        }
+                    }
+                    if (!unicos.isEmpty()) {
+                        ResultadoDoLote lote = importador.cadastrarEmLote(unicos.iterator());
+                        cadastrados += lote.cadastrados();
+                        for (FalhaNoItem falha : lote.falhas())
+                            doBloco.add(new Rejeicao(linhasDosUnicos[(int) falha.indice()], falha.motivo()));
+                    }
+                    doBloco.sort(Comparator.comparingLong(Rejeicao::linha));
+                    for (Rejeicao rejeicao : doBloco)
+                        rejeitadas.write((linhasAnteriores + rejeicao.linha()) + "," + campo(rejeicao.motivo()) + "\n");
+                    rejeitados += doBloco.size();
+                    linhas += bloco.linhasDeDados();
+                    linhasAnteriores += bloco.linhasFisicas();
+                }
+                log.info("Importação de {}: {} linhas, {} cadastradas, {} rejeitadas", arquivo.getFileName(), linhas,
+                        cadastrados, rejeitados);
+            }
+
+            return new ResultadoDaImportacao(linhas, cadastrados, rejeitados,
+                    Duration.ofNanos(System.nanoTime() - inicio), relatorio);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ForkJoinTask<List<BlocoAnalisado>> analisar(ForkJoinPool pool, FileChannel canal, List<Bloco> blocos,
+                                                         int primeiro, int quantidade, PrimeirasOcorrencias primeiras) {
+        if (primeiro >= blocos.size()) return null;
+        return pool.submit(new AnaliseDeBlocos(canal,
+                blocos.subList(primeiro, Math.min(primeiro + quantidade, blocos.size())), primeiras));
+    }
+
+    // Divide ao meio até sobrar um bloco por tarefa; os resultados voltam na ordem do arquivo
+    private final class AnaliseDeBlocos extends RecursiveTask<List<BlocoAnalisado>> {
+        private final FileChannel canal;
+        private final List<Bloco> blocos;
+        private final PrimeirasOcorrencias primeiras;
+
+        private AnaliseDeBlocos(FileChannel canal, List<Bloco> blocos, PrimeirasOcorrencias primeiras) {
+            this.canal = canal;
+            this.blocos = blocos;
+            this.primeiras = primeiras;
+        }
+
+        @Override
+        protected List<BlocoAnalisado> compute() {
+            if (blocos.size() == 1) return List.of(analisar(canal, blocos.get(0), primeiras));
+            int meio = blocos.size() / 2;
+            var primeiraMetade = new AnaliseDeBlocos(canal, blocos.subList(0, meio), primeiras);
+            primeiraMetade.fork();
+            List<BlocoAnalisado> segunda = new AnaliseDeBlocos(canal, blocos.subList(meio, blocos.size()), primeiras).compute();
+            List<BlocoAnalisado> todos = new ArrayList<>(primeiraMetade.join());
+            todos.addAll(segunda);
+            return todos;
+        }
+    }
+
+    private List<Bloco> dividir(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        long passo = Math.min(tamanhoDoBloco.toBytes(), Integer.MAX_VALUE);
+        List<Bloco> blocos = new ArrayList<>();
+        for (long inicio = 0; inicio < tamanho; ) {
+            long fim = inicio + passo >= tamanho ? tamanho : fimDaLinha(canal, inicio + passo - 1, tamanho);
+            if (fim - inicio > Integer.MAX_VALUE) throw new IOException("Linha longa demais perto do byte " + inicio);
+            blocos.add(new Bloco(inicio, fim));
+            inicio = fim;
+        }
+        return blocos;
+    }
+
+    // Posição logo após a primeira quebra de linha a partir de {@code posicao}, ou o fim do arquivo
+    private static long fimDaLinha(FileChannel canal, long posicao, long tamanho) throws IOException {
+        ByteBuffer leitura = ByteBuffer.allocate(8192);
+        while (posicao < tamanho) {
+            leitura.clear();
+            int lidos = canal.read(leitura, posicao);
+            for (int i = 0; i < lidos; i++)
+                if (leitura.get(i) == '\n') return posicao + i + 1;
+            posicao += lidos;
+        }
+        return tamanho;
+    }
+
+    private BlocoAnalisado analisar(FileChannel canal, Bloco bloco, PrimeirasOcorrencias primeiras) {
+        MappedByteBuffer mapa;
+        try {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, bloco.inicio(), bloco.fim() - bloco.inicio());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Usuario> usuarios = new ArrayList<>();
+        int[] linhasDosUsuarios = new int[64];
+        long[] posicoesDosUsuarios = new long[64];
+        List<Rejeicao> rejeicoes = new ArrayList<>();
+        byte[] linha = new byte[256];
+        int linhasFisicas = 0;
+        int linhasDeDados = 0;
+
+        int limite = mapa.limit();
+        for (int posicao = 0; posicao < limite; ) {
+            long posicaoNoArquivo = bloco.inicio() + posicao;
+            int fim = posicao;
+            while (fim < limite && mapa.get(fim) != '\n') fim++;
+            int tamanho = fim - posicao;
+            if (tamanho > 0 && mapa.get(fim - 1) == '\r') tamanho--;
+            if (tamanho > linha.length) linha = new byte[Math.max(tamanho, linha.length * 2)];
+            mapa.get(posicao, linha, 0, tamanho);
+            posicao = fim + 1;
+            linhasFisicas++;
+
+            int deslocamento = 0;
+            if (bloco.inicio() == 0 && linhasFisicas == 1) {
+                deslocamento = semBom(linha, tamanho);
+                if (ehCabecalho(linha, deslocamento, tamanho)) continue;
+            }
+            if (emBranco(linha, deslocamento, tamanho)) continue;
+
+            linhasDeDados++;
+            try {
+                Usuario usuario = converter(campos(linha, deslocamento, tamanho));
+                // Repetição de uma linha anterior já analisada: nem consulta o banco, onde ela pode já estar gravada
+                primeiras.registrar(usuario, posicaoNoArquivo);
+                String repeticao = primeiras.repeticao(usuario, posicaoNoArquivo);
+                if (repeticao != null) throw new IllegalArgumentException(repeticao);
+                detectorDeDuplicidade.verificar(usuario);
+                if (usuarios.size() == linhasDosUsuarios.length) {
+                    linhasDosUsuarios = Arrays.copyOf(linhasDosUsuarios, linhasDosUsuarios.length * 2);
+                    posicoesDosUsuarios = Arrays.copyOf(posicoesDosUsuarios, posicoesDosUsuarios.length * 2);
+                }
+                linhasDosUsuarios[usuarios.size()] = linhasFisicas;
+                posicoesDosUsuarios[usuarios.size()] = posicaoNoArquivo;
+                usuarios.add(usuario);
+            } catch (IllegalArgumentException | UsuarioDuplicadoException e) {
+                rejeicoes.add(new Rejeicao(linhasFisicas, e.getMessage()));
+            }
+        }
+        return new BlocoAnalisado(linhasFisicas, linhasDeDados, usuarios, linhasDosUsuarios, posicoesDosUsuarios,
+                rejeicoes);
+    }
+
+    private Usuario converter(List<String> campos) {
+        if (campos.size() != COLUNAS_SEM_ENDERECO && campos.size() != COLUNAS_COM_ENDERECO)
+            throw new IllegalArgumentException("Esperadas " + COLUNAS_SEM_ENDERECO + " ou " + COLUNAS_COM_ENDERECO
+                    + " colunas, encontradas " + campos.size());
+        LocalDate nascimento;
+        try {
+            nascimento = LocalDate.parse(campos.get(2));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data de nascimento inválida");
+        }
+
+        String cep = null;
+        Integer numero = null;
+        String complemento = null;
+        if (campos.size() == COLUNAS_COM_ENDERECO && !campos.get(4).isEmpty()) {
+            cep = campos.get(4);
+            try {
+                numero = campos.get(5).isEmpty() ? null : Integer.valueOf(campos.get(5));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Número inválido");
+            }
+            complemento = campos.get(6).isEmpty() ? null : campos.get(6);
+        }
+        return mapper.toEntity(FabricaDeUsuario.criar(campos.get(1), campos.get(0), nascimento, campos.get(3),
+                cep, numero, complemento));
+    }
+
+    /**
+     * Separa os campos pelas vírgulas. Um campo entre aspas duplas pode conter vírgulas e aspas dobradas ({@code ""});
+     * os demais perdem os espaços das pontas.
+     */
+    static List<String> campos(byte[] linha, int inicio, int fim) {
+        List<String> campos = new ArrayList<>(COLUNAS_COM_ENDERECO);
+        int i = inicio;
+        while (true) {
+            if (i < fim && linha[i] == '"') {
+                byte[] valor = new byte[fim - i];
+                int tamanho = 0;
+                for (i++; ; i++) {
+                    if (i >= fim) throw new IllegalArgumentException("Aspas sem fechamento");
+                    if (linha[i] == '"') {
+                        if (i + 1 < fim && linha[i + 1] == '"') i++;
+                        else break;
+                    }
+                    valor[tamanho++] = linha[i];
+                }
+                i++;
+                if (i < fim && linha[i] != ',') throw new IllegalArgumentException("Conteúdo após as aspas de fechamento");
+                campos.add(new String(valor, 0, tamanho, StandardCharsets.UTF_8));
+            } else {
+                int comeco = i;
+                while (i < fim && linha[i] != ',') i++;
+                campos.add(new String(linha, comeco, i - comeco, StandardCharsets.UTF_8).strip());
+            }
+            if (i >= fim) return campos;
+            i++;
+        }
+    }
+
+    private static int semBom(byte[] linha, int tamanho) {
+        boolean bom = tamanho >= 3 && linha[0] == (byte) 0xEF && linha[1] == (byte) 0xBB && linha[2] == (byte) 0xBF;
+        return bom ? 3 : 0;
+    }
+
+    private static boolean ehCabecalho(byte[] linha, int inicio, int fim) {
+        return fim - inicio >= 3 && (linha[inicio] | 0x20) == 'c' && (linha[inicio + 1] | 0x20) == 'p'
+                && (linha[inicio + 2] | 0x20) == 'f';
+    }
+
+    private static boolean emBranco(byte[] linha, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++)
+            if (linha[i] != ' ' && linha[i] != '\t') return false;
+        return true;
+    }
+
+    private static String campo(String valor) {
+        if (valor == null) return "";
+        return '"' + valor.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
+    }
+}
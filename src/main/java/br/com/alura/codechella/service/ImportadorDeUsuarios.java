@@ -0,0 +1,164 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.ResultadoDoLote;
+import br.com.alura.codechella.dto.ResultadoDoLote.FalhaNoItem;
+import br.com.alura.codechella.infra.metricas.MetricasDeValidacao;
+import br.com.alura.codechella.infra.sql.ErrosDoBanco;
+import br.com.alura.codechella.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastra usuários em lote, gravando em transações de {@code codechella.cadastro-em-lote.tamanho} itens
+ * para que o Hibernate envie os INSERTs em batch JDBC. Um item inválido não interrompe o lote.
+ * Só erros dos próprios dados (validação, restrição do banco) viram falha do item; uma falha de infraestrutura,
+ * como a queda da conexão, interrompe o cadastro com exceção, mantendo os blocos já gravados.
+ */
+@Service
+public class ImportadorDeUsuarios {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private DetectorDeDuplicidade detectorDeDuplicidade;
+
+    @Autowired
+    private MetricasDeValidacao metricasDeValidacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Value("${codechella.cadastro-em-lote.tamanho:500}")
+    private int tamanhoDoLote;
+
+    /**
+     * Consome {@code usuarios} até o fim, gravando-os em lotes.
+     * Se o iterador lançar exceção ao ler um item (ex.: JSON malformado), o item é registrado como falha
+     * e a leitura para, mantendo o que já foi gravado.
+     *
+     * @param usuarios Itens a cadastrar, lidos sob demanda.
+     * @return O resumo com a falha de cada item rejeitado.
+     * @throws RuntimeException se a gravação falhar por um motivo que não os dados de um item.
+     */
+    public ResultadoDoLote cadastrarEmLote(Iterator<Usuario> usuarios) {
+        List<FalhaNoItem> falhas = new ArrayList<>();
+        List<Usuario> lote = new ArrayList<>(tamanhoDoLote);
+        List<Long> indicesDoLote = new ArrayList<>(tamanhoDoLote);
+        long cadastrados = 0;
+        long indice = 0;
+
+        while (true) {
+            Usuario usuario;
+            try {
+                if (!usuarios.hasNext()) break;
+                usuario = usuarios.next();
+            } catch (RuntimeException e) {
+                falhas.add(new FalhaNoItem(indice, "Item ilegível: " + e.getMessage()));
+                break;
+            }
+
+            String violacoes = validar(usuario);
+            if (violacoes != null) {
+                falhas.add(new FalhaNoItem(indice, violacoes));
+            } else {
+                lote.add(usuario);
+                indicesDoLote.add(indice);
+            }
+            indice++;
+
+            if (lote.size() == tamanhoDoLote) {
+                cadastrados += gravar(lote, indicesDoLote, falhas);
+                lote.clear();
+                indicesDoLote.clear();
+            }
+        }
+        if (!lote.isEmpty()) cadastrados += gravar(lote, indicesDoLote, falhas);
+
+        return new ResultadoDoLote(cadastrados, falhas.size(), falhas);
+    }
+
+    private String validar(Usuario usuario) {
+        Set<ConstraintViolation<Usuario>> violacoes = validator.validate(usuario);
+        if (violacoes.isEmpty()) return null;
+        violacoes.forEach(v -> metricasDeValidacao.registrarFalha(v.getPropertyPath().toString()));
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private int gravar(List<Usuario> lote, List<Long> indices, List<FalhaNoItem> falhas) {
+        try {
+            transacao.executeWithoutResult(status -> persistir(lote));
+            lote.forEach(detectorDeDuplicidade::registrar);
+            return lote.size();
+        } catch (RuntimeException erroNoLote) {
+            lote.forEach(usuario -> usuario.setId(null));
+            if (!recusouOsDados(erroNoLote)) throw erroNoLote;
+            // Refaz item a item só quando os dados de algum item foram recusados, para isolar quem causou o erro
+            int gravados = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                Usuario usuario = lote.get(i);
+                try {
+                    transacao.executeWithoutResult(status -> persistir(List.of(usuario)));
+                    detectorDeDuplicidade.registrar(usuario);
+                    gravados++;
+                } catch (RuntimeException erro) {
+                    usuario.setId(null);
+                    if (!recusouOsDados(erro)) throw erro;
+                    falhas.add(new FalhaNoItem(indices.get(i), motivo(erro, usuario)));
+                }
+            }
+            return gravados;
+        }
+    }
+
+    private static boolean recusouOsDados(RuntimeException erro) {
+        return erro instanceof ConstraintViolationException || ErrosDoBanco.recusouOsDados(erro);
+    }
+
+    private void persistir(List<Usuario> usuarios) {
+        usuarios.forEach(entityManager::persist);
+        usuarios.forEach(usuario -> eventos.publishEvent(new UsuarioGravado(usuario, true)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Motivos fixos no lugar da mensagem do driver; no índice único, o detector diz se foi o CPF ou o e-mail
+    private String motivo(RuntimeException erro, Usuario usuario) {
+        if (erro instanceof ConstraintViolationException violacao) {
+            return violacao.getConstraintViolations().stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (ErrosDoBanco.violouUnicidade(erro)) {
+            try {
+                detectorDeDuplicidade.verificar(usuario);
+            } catch (UsuarioDuplicadoException duplicado) {
+                return duplicado.getMessage();
+            }
+        }
+        return ErrosDoBanco.motivo(erro);
+    }
+}
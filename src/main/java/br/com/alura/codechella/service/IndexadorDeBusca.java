@@ -0,0 +1,21 @@
+package br.com.alura.codechella.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Repassa à {@link BuscaDeUsuarios} cada {@link UsuarioGravado} publicado pelo cadastro unitário, em lote, pela
+ * fila ou pela alteração, só depois do commit para não indexar o que sofreu rollback.
+ */
+@Component
+public class IndexadorDeBusca {
+
+    @Autowired
+    private BuscaDeUsuarios busca;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aposGravar(UsuarioGravado evento) {
+        busca.indexar(evento.usuario());
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.UsuarioDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Arquivo local, só de acréscimo, com os cadastros aceitos pela {@link FilaDeCadastro}.
+ * Cada linha é {@code E <protocolo> <id> <json>} quando o cadastro entra na fila ou {@code C <protocolo>} quando
+ * sai dela; ao subir a aplicação, as entradas sem conclusão voltam para a fila. Quando o arquivo passa de
+ * {@code limiteEmBytes}, ele é reescrito só com as entradas pendentes.
+ * <p>
+ * As linhas são descarregadas para o sistema operacional a cada escrita, o que sobrevive a um reinício do processo;
+ * não há {@code fsync} por cadastro.
+ */
+public class JournalDeCadastros implements AutoCloseable {
+
+    /**
+     * Cadastro aceito e ainda não concluído.
+     *
+     * @param usuarioId Id reservado na aceitação; {@code null} nas entradas gravadas antes da reserva de ids.
+     */
+    public record Entrada(Long usuarioId, UsuarioDto usuario) {
+    }
+
+    private final Path arquivo;
+    private final ObjectMapper objectMapper;
+    private final long limiteEmBytes;
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Linhas E das entradas pendentes, já serializadas: a compactação só as copia
+    private final Map<UUID, String> pendentes = new LinkedHashMap<>();
+    private BufferedWriter escritor;
+    private long tamanho;
+
+    public JournalDeCadastros(Path arquivo, ObjectMapper objectMapper, long limiteEmBytes) {
+        this.arquivo = arquivo;
+        this.objectMapper = objectMapper;
+        this.limiteEmBytes = limiteEmBytes;
+    }
+
+    /**
+     * Lê o arquivo linha a linha, reescreve-o só com os cadastros ainda pendentes e o deixa aberto para novas
+     * entradas. Só a última linha pode estar incompleta (queda no meio da escrita) e é descartada.
+     *
+     * @return Os cadastros pendentes, na ordem em que foram aceitos.
+     * @throws IllegalStateException se uma linha que não a última estiver ilegível.
+     */
+    public Map<UUID, Entrada> abrir() {
+        trava.lock();
+        try {
+            Map<UUID, Entrada> entradas = new LinkedHashMap<>();
+            pendentes.clear();
+            if (arquivo.getParent() != null) Files.createDirectories(arquivo.getParent());
+            if (Files.exists(arquivo)) ler(entradas);
+            compactar();
+            return entradas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void registrarEntrada(UUID protocolo, Long usuarioId, UsuarioDto usuario) {
+        String linha;
+        try {
+            linha = "E " + protocolo + " " + usuarioId + " " + objectMapper.writeValueAsString(usuario);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        trava.lock();
+        try {
+            escrever(linha);
+            pendentes.put(protocolo, linha);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void registrarConclusao(Collection<UUID> protocolos) {
+        if (protocolos.isEmpty()) return;
+        var linhas = new StringBuilder();
+        protocolos.forEach(p -> linhas.append("C ").append(p).append('\n'));
+        trava.lock();
+        try {
+            escrever(linhas.substring(0, linhas.length() - 1));
+            protocolos.forEach(pendentes::remove);
+            if (tamanho > limiteEmBytes) compactar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        trava.lock();
+        try {
+            if (escritor != null) escritor.close();
+            escritor = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void escrever(String linha) {
+        try {
+            if (escritor == null) throw new IllegalStateException("Journal de cadastros não está aberto");
+            escritor.write(linha);
+            escritor.newLine();
+            escritor.flush();
+            // Em caracteres, não em bytes: basta para decidir quando compactar
+            tamanho += linha.length() + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ler(Map<UUID, Entrada> entradas) throws IOException {
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha = leitor.readLine();
+            for (long numero = 1; linha != null; numero++) {
+                String proxima = leitor.readLine();
+                try {
+                    ler(linha, entradas);
+                } catch (IOException | RuntimeException e) {
+                    // Linha final truncada por uma queda durante a escrita: o cadastro não chegou a ser confirmado
+                    if (proxima != null) {
+                        throw new IllegalStateException("Linha " + numero + " ilegível no journal " + arquivo, e);
+                    }
+                }
+                linha = proxima;
+            }
+        }
+    }
+
+    private void ler(String linha, Map<UUID, Entrada> entradas) throws IOException {
+        if (linha.startsWith("E ")) {
+            int fimDoProtocolo = linha.indexOf(' ', 2);
+            var protocolo = UUID.fromString(linha.substring(2, fimDoProtocolo));
+            // Entradas anteriores à reserva de ids vão direto do protocolo para o JSON
+            Long usuarioId = null;
+            int inicioDoJson = fimDoProtocolo + 1;
+            if (linha.charAt(inicioDoJson) != '{') {
+                int fimDoId = linha.indexOf(' ', inicioDoJson);
+                String id = linha.substring(inicioDoJson, fimDoId);
+                usuarioId = "null".equals(id) ? null : Long.valueOf(id);
+                inicioDoJson = fimDoId + 1;
+            }
+            var usuario = objectMapper.readValue(linha.substring(inicioDoJson), UsuarioDto.class);
+            entradas.put(protocolo, new Entrada(usuarioId, usuario));
+            pendentes.put(protocolo, "E " + protocolo + " " + usuarioId + " " + linha.substring(inicioDoJson));
+        } else if (linha.startsWith("C ")) {
+            var protocolo = UUID.fromString(linha.substring(2).trim());
+            entradas.remove(protocolo);
+            pendentes.remove(protocolo);
+        } else if (!linha.isEmpty()) {
+            throw new IllegalArgumentException("Tipo de linha desconhecido");
+        }
+    }
+
+    // Reescreve o arquivo ao lado e o troca de uma vez: uma queda no meio deixa o arquivo anterior intacto
+    private void compactar() throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        long escritos = 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            for (String linha : pendentes.values()) {
+                saida.write(linha);
+                saida.newLine();
+                escritos += linha.length() + 1;
+            }
+        }
+        if (escritor != null) escritor.close();
+        escritor = null;
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        tamanho = escritos;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.alura.codechella.service;
+
+/**
+ * Menor posição vista para cada chave {@code long}, em tabelas de endereçamento aberto com sondagem linear como as do
+ * {@link DiretorioDeCpfs}: dois {@code long} por chave em arrays primitivos, sem objeto por entrada. As chaves são
+ * repartidas em segmentos com trava própria, para as threads de análise não disputarem uma única trava.
+ */
+class PrimeirasPosicoes {
+
+    // A chave zero marca posição livre; quem precisar dela a troca por outra antes de chegar aqui
+    private static final long LIVRE = 0;
+    private static final long NENHUMA = -1;
+    private static final double CARGA_MAXIMA = 0.75;
+    private static final int SEGMENTOS = 64;
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    PrimeirasPosicoes() {
+        for (int i = 0; i < SEGMENTOS; i++) segmentos[i] = new Segmento();
+    }
+
+    /**
+     * Guarda a posição se for a primeira vista para a chave ou anterior à guardada.
+     *
+     * @param chave   Qualquer valor diferente de zero.
+     * @param posicao Posição não negativa.
+     */
+    void registrar(long chave, long posicao) {
+        int h = espalhar(chave);
+        segmentos[h >>> 26].registrar(chave, posicao, h);
+    }
+
+    /**
+     * @return A menor posição registrada para a chave, ou -1 se ela nunca foi registrada.
+     */
+    long primeira(long chave) {
+        int h = espalhar(chave);
+        return segmentos[h >>> 26].primeira(chave, h);
+    }
+
+    private static final class Segmento {
+
+        private long[] tabela = new long[2 * 64];
+        private int quantidade;
+
+        synchronized void registrar(long chave, long posicao, int h) {
+            int posicoes = tabela.length / 2;
+            if (quantidade + 1 > posicoes * CARGA_MAXIMA) redimensionar(posicoes * 2);
+            int mascara = tabela.length / 2 - 1;
+            for (int i = h & mascara; ; i = (i + 1) & mascara) {
+                long ocupante = tabela[2 * i];
+                if (ocupante == chave) {
+                    if (posicao < tabela[2 * i + 1]) tabela[2 * i + 1] = posicao;
+                    return;
+                }
+                if (ocupante == LIVRE) {
+                    tabela[2 * i] = chave;
+                    tabela[2 * i + 1] = posicao;
+                    quantidade++;
+                    return;
+                }
+            }
+        }
+
+        synchronized long primeira(long chave, int h) {
+            int mascara = tabela.length / 2 - 1;
+            for (int i = h & mascara; ; i = (i + 1) & mascara) {
+                long ocupante = tabela[2 * i];
+                if (ocupante == chave) return tabela[2 * i + 1];
+                if (ocupante == LIVRE) return NENHUMA;
+            }
+        }
+
+        private void redimensionar(int posicoes) {
+            long[] nova = new long[Math.multiplyExact(posicoes, 2)];
+            int mascara = posicoes - 1;
+            for (int j = 0; j < tabela.length; j += 2) {
+                long chave = tabela[j];
+                if (chave == LIVRE) continue;
+                int i = espalhar(chave) & mascara;
+                while (nova[2 * i] != LIVRE) i = (i + 1) & mascara;
+                nova[2 * i] = chave;
+                nova[2 * i + 1] = tabela[j + 1];
+            }
+            tabela = nova;
+        }
+    }
+
+    // Multiplicação de Fibonacci: os bits altos escolhem o segmento, os baixos a posição dentro dele
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
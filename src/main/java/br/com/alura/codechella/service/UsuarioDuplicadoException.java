@@ -0,0 +1,8 @@
+package br.com.alura.codechella.service;
+
+public class UsuarioDuplicadoException extends RuntimeException {
+
+    public UsuarioDuplicadoException(String mensagem) {
+        super(mensagem);
+    }
+}
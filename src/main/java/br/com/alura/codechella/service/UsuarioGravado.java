@@ -0,0 +1,12 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.model.Usuario;
+
+/**
+ * Publicado pelos serviços a cada usuário cadastrado ou alterado, dentro da transação da gravação.
+ *
+ * @param usuario O usuário como foi gravado.
+ * @param novo    {@code true} no cadastro, {@code false} na alteração.
+ */
+public record UsuarioGravado(Usuario usuario, boolean novo) {
+}
@@ -1,11 +1,36 @@
 package br.com.alura.codechella.service;
 
+import br.com.alura.codechella.dto.AlteracaoDeUsuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
 import br.com.alura.codechella.model.Usuario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface UsuarioService {
     Usuario cadastrarUsuario(Usuario usuario);
 
-    List<Usuario> listarTodos();
+    /**
+     * Aplica a alteração parcial com bloqueio otimista. Sem {@code versaoEsperada}, um conflito com outra
+     * alteração simultânea é resolvido relendo o usuário e aplicando de novo, algumas vezes.
+     *
+     * @param versaoEsperada Versão que o cliente leu, ou {@code null} para aceitar a atual.
+     * @return O usuário alterado, ou vazio se não existir.
+     * @throws ConflitoDeVersaoException se a versão atual for diferente da esperada.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se os conflitos persistirem.
+     */
+    Optional<Usuario> alterarUsuario(Long id, Long versaoEsperada, AlteracaoDeUsuario alteracao);
+
+    Optional<Usuario> buscarPorId(Long id);
+
+    Optional<Usuario> buscarPorCpf(String cpf);
+
+    PaginaPorCursor<Usuario> listarPorCursor(String cursor, int tamanho);
+
+    PaginaPorCursor<Map<String, Object>> listarCamposPorCursor(String cursor, int tamanho, Set<String> campos);
+
+    Page<Usuario> listarPagina(Pageable paginacao);
 }
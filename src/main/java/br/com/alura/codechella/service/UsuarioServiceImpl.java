@@ -1,24 +1,175 @@
 package br.com.alura.codechella.service;
 
+import br.com.alura.codechella.domain.entities.usuario.Endereco;
+import br.com.alura.codechella.dto.AlteracaoDeUsuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
 import br.com.alura.codechella.model.Usuario;
 import br.com.alura.codechella.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
+    static final int TAMANHO_MAXIMO_PAGINA = 500;
+    static final String CACHE_POR_ID = "usuarios";
+    static final String CACHE_POR_CPF = "usuariosPorCpf";
+    static final int TENTATIVAS_EM_CONFLITO = 3;
+
     @Autowired
     private UsuarioRepository repository;
 
+    @Autowired
+    private DetectorDeDuplicidade detectorDeDuplicidade;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private UsuarioEntityMapper mapper;
+
+    @Autowired
+    private Validator validator;
+
+    // Transação de escrita desde a verificação de duplicidade: com réplicas, nem ela lê um dado atrasado
     @Override
+    @Transactional
+    @Timed(value = "codechella.usuarios.cadastro", percentiles = {0.5, 0.99}, histogram = true)
+    @Caching(put = {
+            @CachePut(cacheNames = CACHE_POR_ID, key = "#result.id"),
+            @CachePut(cacheNames = CACHE_POR_CPF, key = "#result.cpf")
+    })
     public Usuario cadastrarUsuario(Usuario usuario) {
-        return repository.save(usuario);
+        detectorDeDuplicidade.verificar(usuario);
+        Usuario salvo = repository.saveAndFlush(usuario);
+        detectorDeDuplicidade.registrar(salvo);
+        eventos.publishEvent(new UsuarioGravado(salvo, true));
+        return salvo;
+    }
+
+    // Cada tentativa é uma transação nova, que relê a versão atual: sem lock de linha enquanto o cliente decide
+    @Override
+    @Timed(value = "codechella.usuarios.alteracao", percentiles = {0.5, 0.99}, histogram = true)
+    @Caching(put = {
+            @CachePut(cacheNames = CACHE_POR_ID, key = "#id", condition = "#result != null"),
+            @CachePut(cacheNames = CACHE_POR_CPF, key = "#result.cpf", condition = "#result != null")
+    })
+    public Optional<Usuario> alterarUsuario(Long id, Long versaoEsperada, AlteracaoDeUsuario alteracao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transacao.execute(status -> aplicar(id, versaoEsperada, alteracao));
+            } catch (OptimisticLockingFailureException conflito) {
+                if (versaoEsperada != null)
+                    throw new ConflitoDeVersaoException("Usuário alterado por outra requisição");
+                if (tentativa == TENTATIVAS_EM_CONFLITO) throw conflito;
+            }
+        }
+    }
+
+    private Optional<Usuario> aplicar(Long id, Long versaoEsperada, AlteracaoDeUsuario alteracao) {
+        Optional<Usuario> encontrado = repository.findById(id);
+        if (encontrado.isEmpty()) return encontrado;
+        Usuario usuario = encontrado.get();
+        if (versaoEsperada != null && !versaoEsperada.equals(usuario.getVersao()))
+            throw new ConflitoDeVersaoException("Usuário alterado por outra requisição");
+
+        // As regras de alteração são as do domínio; a entidade só recebe o resultado
+        var dominio = mapper.toDomain(usuario);
+        dominio.alterar(alteracao.nome(), alteracao.nascimento(), alteracao.email());
+        if (alteracao.endereco() != null) dominio.setEndereco(new Endereco(
+                alteracao.endereco().cep(), alteracao.endereco().numero(), alteracao.endereco().complemento()));
+        if (!dominio.getEmail().equals(usuario.getEmail())) detectorDeDuplicidade.verificarEmail(dominio.getEmail());
+
+        // Com @DynamicUpdate, só as colunas que de fato mudaram entram no UPDATE
+        var alterado = mapper.toEntity(dominio);
+        usuario.setNome(alterado.getNome());
+        usuario.setNascimento(alterado.getNascimento());
+        usuario.setEmail(alterado.getEmail());
+        usuario.setEndereco(alterado.getEndereco());
+        // Tamanhos e demais restrições do modelo verificados antes do UPDATE, e não pelo banco
+        Set<ConstraintViolation<Usuario>> violacoes = validator.validate(usuario);
+        if (!violacoes.isEmpty()) throw new ConstraintViolationException(violacoes);
+        // O UPDATE sai aqui, dentro da tentativa, para o conflito de versão ser detectado a tempo de repetir
+        repository.flush();
+        detectorDeDuplicidade.registrar(usuario);
+        eventos.publishEvent(new UsuarioGravado(usuario, false));
+        return Optional.of(usuario);
+    }
+
+    // Buscas sem resultado não entram no cache, para um cadastro posterior ser visto de imediato
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CACHE_POR_ID, unless = "#result == null")
+    public Optional<Usuario> buscarPorId(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CACHE_POR_CPF, unless = "#result == null")
+    public Optional<Usuario> buscarPorCpf(String cpf) {
+        return repository.findByCpf(cpf);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "codechella.usuarios.listagem", percentiles = {0.5, 0.99}, histogram = true)
+    public PaginaPorCursor<Usuario> listarPorCursor(String cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        long aposId = CursorDeUsuario.decodificar(cursor);
+
+        // Busca um registro a mais só para saber se existe próxima página, sem COUNT(*)
+        List<Usuario> usuarios = repository.findByIdGreaterThanOrderByIdAsc(aposId, Limit.of(limite + 1));
+        if (usuarios.size() <= limite) return new PaginaPorCursor<>(usuarios, null);
+
+        List<Usuario> pagina = usuarios.subList(0, limite);
+        return new PaginaPorCursor<>(pagina, CursorDeUsuario.codificar(pagina.get(limite - 1).getId()));
+    }
+
+    // Só as colunas pedidas, sem entidades gerenciadas: nada a hidratar nem a comparar no flush
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "codechella.usuarios.listagem.campos", percentiles = {0.5, 0.99}, histogram = true)
+    public PaginaPorCursor<Map<String, Object>> listarCamposPorCursor(String cursor, int tamanho, Set<String> campos) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        long aposId = CursorDeUsuario.decodificar(cursor);
+        for (String campo : campos) {
+            if (!UsuarioRepository.CAMPOS_PROJETAVEIS.contains(campo))
+                throw new IllegalArgumentException("Campo desconhecido: " + campo);
+        }
+
+        List<Map<String, Object>> usuarios = repository.buscarCamposPorKeyset(campos, aposId, limite + 1);
+        if (usuarios.size() <= limite) return new PaginaPorCursor<>(usuarios, null);
+
+        List<Map<String, Object>> pagina = usuarios.subList(0, limite);
+        return new PaginaPorCursor<>(pagina, CursorDeUsuario.codificar((Long) pagina.get(limite - 1).get("id")));
     }
 
     @Override
-    public List<Usuario> listarTodos() {
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public Page<Usuario> listarPagina(Pageable paginacao) {
+        return repository.findAll(paginacao);
     }
 }
@@ -0,0 +1,23 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reativa da leitura de {@link UsuarioService}, usada pelo perfil {@code leitura-reativa}.
+ */
+public interface UsuarioServiceReativo {
+
+    /**
+     * Mesma página, com o mesmo cursor, que {@link UsuarioService#listarPorCursor} devolveria.
+     */
+    Mono<PaginaPorCursor<Usuario>> listarPorCursor(String cursor, int tamanho);
+
+    /**
+     * Todos os usuários depois do cursor, em ordem de id. Cada lote só é consultado quando quem assina já pediu
+     * os usuários do lote anterior: um cliente lento segura as consultas em vez de acumular linhas em memória.
+     */
+    Flux<Usuario> listarAPartirDe(String cursor);
+}
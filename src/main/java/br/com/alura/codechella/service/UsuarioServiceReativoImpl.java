@@ -0,0 +1,46 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.repository.UsuarioRepositoryReativo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class UsuarioServiceReativoImpl implements UsuarioServiceReativo {
+    static final int TAMANHO_DO_LOTE = 500;
+
+    @Autowired
+    private UsuarioRepositoryReativo repository;
+
+    @Override
+    public Mono<PaginaPorCursor<Usuario>> listarPorCursor(String cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, UsuarioServiceImpl.TAMANHO_MAXIMO_PAGINA));
+        return Mono.fromCallable(() -> CursorDeUsuario.decodificar(cursor))
+                // Um registro a mais só para saber se existe próxima página, como na listagem bloqueante
+                .flatMapMany(aposId -> repository.buscarAposId(aposId, limite + 1))
+                .collectList()
+                .map(usuarios -> {
+                    if (usuarios.size() <= limite) return new PaginaPorCursor<>(usuarios, null);
+                    List<Usuario> pagina = usuarios.subList(0, limite);
+                    return new PaginaPorCursor<>(pagina, CursorDeUsuario.codificar(pagina.get(limite - 1).getId()));
+                });
+    }
+
+    @Override
+    public Flux<Usuario> listarAPartirDe(String cursor) {
+        return Mono.fromCallable(() -> CursorDeUsuario.decodificar(cursor))
+                .flatMapMany(aposId -> lote(aposId)
+                        // Lote cheio: o próximo começa depois do último id entregue
+                        .expand(lote -> lote.size() < TAMANHO_DO_LOTE ? Mono.empty() : lote(lote.get(lote.size() - 1).getId())))
+                .concatMapIterable(lote -> lote, 1);
+    }
+
+    private Mono<List<Usuario>> lote(long aposId) {
+        return repository.buscarAposId(aposId, TAMANHO_DO_LOTE).collectList();
+    }
+}
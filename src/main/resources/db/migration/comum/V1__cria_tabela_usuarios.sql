@@ -0,0 +1,19 @@
+-- "if not exists": bancos criados pelo antigo ddl-auto=update já têm a tabela, sem as colunas e índices mais novos,
+-- que a migração de atualização do esquema antigo acrescenta
+create sequence if not exists usuarios_seq start with 1 increment by 50;
+
+create table if not exists usuarios (
+    id bigint not null,
+    cpf varchar(255),
+    nome varchar(255),
+    nascimento date not null,
+    email varchar(255),
+    cep varchar(255),
+    numero integer,
+    complemento varchar(255),
+    versao bigint default 0,
+    atualizado_em timestamp(6) with time zone,
+    primary key (id),
+    constraint ux_usuarios_cpf unique (cpf),
+    constraint ux_usuarios_email unique (email)
+);
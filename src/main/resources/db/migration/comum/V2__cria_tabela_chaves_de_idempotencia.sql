@@ -0,0 +1,9 @@
+-- "if not exists": a tabela era criada pela própria aplicação quando codechella.idempotencia.armazem=banco
+create table if not exists chaves_de_idempotencia (
+    chave varchar(255) primary key,
+    hash_da_requisicao varchar(64) not null,
+    status integer,
+    location varchar(2048),
+    corpo text,
+    expira_em timestamp not null
+);
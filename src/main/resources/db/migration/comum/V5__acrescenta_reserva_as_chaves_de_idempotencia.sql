@@ -0,0 +1,3 @@
+-- Momento da reserva: uma reserva sem resposta mais antiga que o prazo da reserva é de uma instância que caiu
+-- no meio da execução, e a retentativa a assume. Linhas anteriores ficam nulas e contam como abandonadas
+alter table chaves_de_idempotencia add column if not exists reservada_em timestamp;
@@ -0,0 +1,4 @@
+-- Corpo nos bytes do formato negociado (JSON, CBOR ou Smile) e o seu Content-Type, repetidos como foram enviados.
+-- A coluna corpo fica para as linhas anteriores, todas em JSON, até vencerem
+alter table chaves_de_idempotencia add column if not exists tipo_do_corpo varchar(255);
+alter table chaves_de_idempotencia add column if not exists corpo_serializado bytea;
@@ -0,0 +1,5 @@
+-- Índices da busca por nome e e-mail (BuscaDeUsuariosPostgres). O pg_trgm é extensão confiável desde o PostgreSQL 13:
+-- basta permissão de CREATE no banco; em versões anteriores um administrador precisa instalá-la antes.
+create extension if not exists pg_trgm;
+create index if not exists ix_usuarios_nome_trgm on usuarios using gin (nome gin_trgm_ops);
+create index if not exists ix_usuarios_email_trgm on usuarios using gin (email gin_trgm_ops);
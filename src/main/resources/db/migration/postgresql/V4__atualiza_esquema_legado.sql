@@ -0,0 +1,15 @@
+-- Completa o esquema dos bancos criados pelo antigo ddl-auto=update (id por identity, sem endereço, versão nem índices
+-- únicos). Em bancos criados pelas migrações não muda nada. Se já houver CPF ou e-mail repetido, os índices únicos
+-- falham e a migração para: os duplicados precisam ser resolvidos antes.
+alter table usuarios
+    add column if not exists cep varchar(255),
+    add column if not exists numero integer,
+    add column if not exists complemento varchar(255),
+    add column if not exists versao bigint default 0,
+    add column if not exists atualizado_em timestamp(6) with time zone;
+
+create unique index if not exists ux_usuarios_cpf on usuarios (cpf);
+create unique index if not exists ux_usuarios_email on usuarios (email);
+
+-- Os ids antigos vieram da identity: a sequência, que o Hibernate reserva de 50 em 50, passa a começar depois deles
+select setval('usuarios_seq', greatest((select coalesce(max(id), 0) from usuarios) + 50, (select last_value from usuarios_seq)));
@@ -0,0 +1,51 @@
+package br.com.alura.codechella;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mede do início do {@code SpringApplication.run} até a primeira resposta de {@code GET /usuarios}, que passa pelo
+ * pool de conexões, Flyway, Hibernate e DispatcherServlet. O orçamento vem da propriedade
+ * {@code codechella.inicializacao.orcamento} do pom e vale para 4 núcleos: com menos, a subida, que inicializa o
+ * Hibernate e o Tomcat em paralelo e compila com o JIT ao mesmo tempo, recebe um orçamento proporcionalmente maior.
+ */
+class TempoDeInicializacaoTest {
+
+    private static final int NUCLEOS_DE_REFERENCIA = 4;
+    private static final Duration ORCAMENTO = Duration.parse(System.getProperty("codechella.inicializacao.orcamento", "PT10S"))
+            .multipliedBy(Math.max(1, NUCLEOS_DE_REFERENCIA / Runtime.getRuntime().availableProcessors()));
+
+    @Test
+    @DisplayName("Deve atender a primeira requisição dentro do orçamento de inicialização")
+    void deveAtenderPrimeiraRequisicaoDentroDoOrcamento() throws Exception {
+        long inicio = System.nanoTime();
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CodechellaApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                // Argumento, e não propriedade padrão, para valer sobre o application-test.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:inicializacao;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            HttpResponse<String> resposta = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/usuarios?tamanho=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Duration ateAPrimeiraResposta = Duration.ofNanos(System.nanoTime() - inicio);
+
+            assertEquals(200, resposta.statusCode(), resposta.body());
+            assertTrue(ateAPrimeiraResposta.compareTo(ORCAMENTO) <= 0,
+                    "Primeira resposta em " + ateAPrimeiraResposta.toMillis() + " ms; orçamento de " + ORCAMENTO.toMillis() + " ms");
+        }
+    }
+}
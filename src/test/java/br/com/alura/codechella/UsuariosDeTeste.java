@@ -0,0 +1,43 @@
+package br.com.alura.codechella;
+
+import br.com.alura.codechella.model.Usuario;
+
+import java.time.LocalDate;
+
+/**
+ * Gera usuários distintos e válidos para os testes de persistência e os benchmarks.
+ */
+public final class UsuariosDeTeste {
+
+    private UsuariosDeTeste() {
+    }
+
+    /**
+     * @param n Número de sequência, de 0 a 899.999.999.
+     * @return Um CPF com dígitos verificadores corretos e base derivada de {@code n}.
+     */
+    public static String cpf(int n) {
+        int[] d = new int[11];
+        String base = String.format("%09d", 100_000_000 + n);
+        for (int i = 0; i < 9; i++) d[i] = base.charAt(i) - '0';
+        d[9] = digitoVerificador(d, 9);
+        d[10] = digitoVerificador(d, 10);
+        return String.format("%d%d%d.%d%d%d.%d%d%d-%d%d", d[0], d[1], d[2], d[3], d[4], d[5], d[6], d[7], d[8], d[9], d[10]);
+    }
+
+    public static Usuario usuario(int n) {
+        Usuario usuario = new Usuario();
+        usuario.setCpf(cpf(n));
+        usuario.setNome("Usuário " + n);
+        usuario.setNascimento(LocalDate.of(1990, 1, 1));
+        usuario.setEmail("usuario" + n + "@example.com");
+        return usuario;
+    }
+
+    private static int digitoVerificador(int[] d, int quantidade) {
+        int soma = 0;
+        for (int i = 0; i < quantidade; i++) soma += d[i] * (quantidade + 1 - i);
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
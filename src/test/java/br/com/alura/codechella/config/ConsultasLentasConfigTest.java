@@ -0,0 +1,43 @@
+package br.com.alura.codechella.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasLentasConfigTest {
+
+    @Test
+    @DisplayName("Deve monitorar as conexões do Hikari, que continua alcançável por unwrap")
+    void deveMonitorarConexoesDoPool() throws Exception {
+        var logger = (Logger) LoggerFactory.getLogger("codechella.consultas-lentas");
+        var eventos = new ListAppender<ILoggingEvent>();
+        eventos.start();
+        logger.addAppender(eventos);
+        var ambiente = new MockEnvironment().withProperty("codechella.consultas-lentas.limite-ms", "0");
+
+        try (var pool = new HikariDataSource()) {
+            pool.setJdbcUrl("jdbc:h2:mem:consultas-lentas-pool");
+            Object bean = ConsultasLentasConfig.monitorDeConsultasLentas(ambiente)
+                    .postProcessAfterInitialization(pool, "dataSource");
+
+            DataSource dataSource = (DataSource) bean;
+            assertSame(pool, dataSource.unwrap(HikariDataSource.class));
+            try (Connection conexao = dataSource.getConnection()) {
+                conexao.prepareStatement("select 1").executeQuery().close();
+            }
+            assertTrue(eventos.list.stream().anyMatch(e -> e.getFormattedMessage().contains("sql=\"select 1\"")));
+        } finally {
+            logger.detachAppender(eventos);
+        }
+    }
+}
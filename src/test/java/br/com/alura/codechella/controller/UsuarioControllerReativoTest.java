@@ -0,0 +1,98 @@
+package br.com.alura.codechella.controller;
+
+import br.com.alura.codechella.UsuariosDeTeste;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:leitura-reativa;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.r2dbc.url=r2dbc:h2:mem:///leitura-reativa;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+})
+@ActiveProfiles({"test", "leitura-reativa"})
+class UsuarioControllerReativoTest {
+
+    @Autowired
+    private WebTestClient cliente;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(IntStream.range(0, 1200).mapToObj(n -> UsuariosDeTeste.usuario(600 + n)).toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor com o mesmo contrato da listagem do Spring MVC")
+    void devePaginarPorCursor() {
+        var primeira = cliente.get().uri("/usuarios?tamanho=2").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class).returnResult().getResponseBody();
+
+        List<?> conteudo = (List<?>) primeira.get("conteudo");
+        assertEquals(2, conteudo.size());
+        assertEquals("Usuário 600", ((Map<?, ?>) conteudo.get(0)).get("nome"));
+        assertNotNull(primeira.get("proximoCursor"));
+
+        cliente.get().uri("/usuarios?tamanho=2&cursor={cursor}", primeira.get("proximoCursor"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.conteudo[0].nome").isEqualTo("Usuário 602");
+    }
+
+    @Test
+    @DisplayName("Deve transmitir todos os usuários em NDJSON, atravessando os lotes")
+    void deveTransmitirEmNdjson() {
+        var usuarios = cliente.get().uri("/usuarios").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Map.class).returnResult().getResponseBody();
+
+        assertEquals(1200, usuarios.size());
+        assertEquals("Usuário 1799", usuarios.get(1199).get("nome"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a página em CBOR quando pedido no Accept")
+    void deveDevolverPaginaEmCbor() throws Exception {
+        byte[] corpo = cliente.get().uri("/usuarios?tamanho=1").accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        Map<?, ?> pagina = new CBORMapper().readValue(corpo, Map.class);
+        assertEquals("Usuário 600", ((Map<?, ?>) ((List<?>) pagina.get("conteudo")).get(0)).get("nome"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 para cursor inválido")
+    void deveRejeitarCursorInvalido() {
+        cliente.get().uri("/usuarios?cursor=***").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.detail").isEqualTo("Cursor inválido");
+    }
+}
@@ -0,0 +1,347 @@
+package br.com.alura.codechella.controller;
+
+import br.com.alura.codechella.infra.metricas.ContadorDeConsultas;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UsuarioControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @DisplayName("Deve cadastrar usuário válido com endereço e devolver 201 com a localização")
+    void deveCadastrarUsuarioValido() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Ana Clara","nascimento":"1995-07-30","email":"ana.clara@example.com",
+                 "endereco":{"cep":"54321-987","numero":50,"complemento":"Casa Verde"}}
+                """.formatted(cpf(500));
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.endereco.cep").value("54321-987"));
+
+        mvc.perform(get("/usuarios/cpf/{cpf}", cpf(500)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endereco.complemento").value("Casa Verde"));
+
+        var consultasNoCadastro = registry.get("codechella.db.consultas")
+                .tag("method", "POST").tag("uri", "/usuarios").summary();
+        assertTrue(consultasNoCadastro.count() >= 1);
+        assertTrue(consultasNoCadastro.max() >= 1, "O cadastro deve executar ao menos o INSERT");
+    }
+
+    @Test
+    @DisplayName("Deve devolver 400 quando a validação do domínio rejeitar o usuário")
+    void deveDevolver400ParaUsuarioInvalido() throws Exception {
+        String corpo = """
+                {"cpf":"123.456.789-00","nome":"Maria Souza","nascimento":"1985-05-20","email":"maria.souza@example.com"}
+                """;
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("CPF inválido"));
+
+        assertTrue(registry.get("codechella.validacao.falhas").tag("motivo", "cpf").counter().count() >= 1);
+
+        double falhasAntes = totalDeFalhasDeValidacao();
+        mvc.perform(get("/usuarios").param("cursor", "não-é-um-cursor"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/usuarios/check-in/{cpf}", "123.456.789-00"))
+                .andExpect(status().isBadRequest());
+        assertEquals(falhasAntes, totalDeFalhasDeValidacao(), "Só recusas de cadastro contam como falha de validação");
+    }
+
+    private double totalDeFalhasDeValidacao() {
+        return registry.find("codechella.validacao.falhas").counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    @Test
+    @DisplayName("Deve devolver 409 ao cadastrar um CPF já existente")
+    void deveDevolver409ParaCpfDuplicado() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Pedro Henrique","nascimento":"1988-03-10","email":"%s"}
+                """;
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted(cpf(501), "pedro@example.com")))
+                .andExpect(status().isCreated());
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted(cpf(501), "outro.pedro@example.com")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("CPF já cadastrado"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver 400, e não 409, quando o banco rejeitar dados sem que haja duplicidade")
+    void deveDevolver400ParaRestricaoQueNaoEhDuplicidade() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"%s","nascimento":"1988-03-10","email":"nome.longo@example.com"}
+                """.formatted(cpf(512), "N".repeat(300));
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve listar só os campos pedidos em fields e recusar campo desconhecido")
+    void deveListarSoOsCamposPedidos() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Lia Campos","nascimento":"1992-11-02","email":"lia.campos@example.com"}
+                """.formatted(cpf(502));
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/usuarios").param("fields", "nome,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].id").isNumber())
+                .andExpect(jsonPath("$.conteudo[0].nome").exists())
+                .andExpect(jsonPath("$.conteudo[0].cpf").doesNotExist());
+
+        mvc.perform(get("/usuarios").param("fields", "senha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Campo desconhecido: senha"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 ao GET condicional enquanto o usuário e a página não mudarem")
+    void deveResponder304ParaRecursoInalterado() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Caio Prado","nascimento":"1990-01-15","email":"%s"}
+                """;
+        String local = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted(cpf(503), "caio.prado@example.com")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+
+        String etag = mvc.perform(get(local))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.startsWith("W/\""));
+        ContadorDeConsultas.zerar();
+        mvc.perform(get(local).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, ContadorDeConsultas.total(), "Usuário recém-cadastrado vem do cache, com a versão");
+
+        String etagDaPagina = mvc.perform(get("/usuarios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        ContadorDeConsultas.zerar();
+        mvc.perform(get("/usuarios").header("If-None-Match", etagDaPagina))
+                .andExpect(status().isNotModified());
+        assertEquals(1, ContadorDeConsultas.total(), "Só a consulta da própria página");
+        mvc.perform(get("/usuarios").param("fields", "nome").header("If-None-Match", etagDaPagina))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted(cpf(504), "caio.prado.2@example.com")))
+                .andExpect(status().isCreated());
+        mvc.perform(get("/usuarios").header("If-None-Match", etagDaPagina))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar usuário recém-cadastrado por parte do nome")
+    void deveBuscarPorParteDoNome() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Gertrudes Albuquerque","nascimento":"1970-04-12","email":"gertrudes@example.com"}
+                """.formatted(cpf(505));
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/usuarios/busca").param("q", "albuquer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].nome").value("Gertrudes Albuquerque"))
+                .andExpect(jsonPath("$.temProxima").value(false));
+
+        mvc.perform(get("/usuarios/busca").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/usuarios/busca").param("q", "al"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve alterar parcialmente com If-Match e devolver 412 para ETag desatualizado")
+    void deveAlterarComIfMatch() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Rita Lopes","nascimento":"1980-02-20","email":"rita.lopes@example.com"}
+                """.formatted(cpf(506));
+        String local = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        String etag = mvc.perform(get(local)).andReturn().getResponse().getHeader("ETag");
+
+        String novoEtag = mvc.perform(patch(local).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Rita L. Lopes\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Rita L. Lopes"))
+                .andExpect(jsonPath("$.email").value("rita.lopes@example.com"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, novoEtag);
+
+        mvc.perform(patch(local).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Outra\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(get(local).header("If-None-Match", novoEtag))
+                .andExpect(status().isNotModified());
+        mvc.perform(patch("/usuarios/{id}", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Ninguém\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Deve repetir a resposta original para a mesma Idempotency-Key sem cadastrar de novo")
+    void deveRepetirRespostaParaMesmaChave() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Davi Rocha","nascimento":"1999-09-09","email":"%s"}
+                """;
+        String original = corpo.formatted(cpf(507), "davi.rocha@example.com");
+
+        var primeira = mvc.perform(post("/usuarios").header("Idempotency-Key", "cadastro-davi")
+                        .contentType(MediaType.APPLICATION_JSON).content(original))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        mvc.perform(post("/usuarios").header("Idempotency-Key", "cadastro-davi")
+                        .contentType(MediaType.APPLICATION_JSON).content(original))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", primeira.getHeader("Location")))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.cpf").value(cpf(507)));
+
+        mvc.perform(post("/usuarios").header("Idempotency-Key", "cadastro-davi")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo.formatted(cpf(508), "outro.davi@example.com")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Deve repetir em CBOR os mesmos bytes da resposta original, com a data em [ano, mês, dia]")
+    void deveRepetirRespostaEmCbor() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Ivo Neves","nascimento":"1994-06-07","email":"ivo.neves@example.com"}
+                """.formatted(cpf(513));
+
+        byte[] original = mvc.perform(post("/usuarios").header("Idempotency-Key", "cadastro-ivo")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        var repetida = mvc.perform(post("/usuarios").header("Idempotency-Key", "cadastro-ivo")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse();
+
+        assertArrayEquals(original, repetida.getContentAsByteArray());
+        assertEquals(List.of(1994, 6, 7), new CBORMapper().readValue(original, Map.class).get("nascimento"));
+    }
+
+    @Test
+    @DisplayName("Deve variar o ETag pelo formato negociado e aceitar qualquer um deles no If-Match")
+    void deveVariarEtagPeloFormato() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Ana Reis","nascimento":"1991-10-10","email":"ana.reis@example.com"}
+                """.formatted(cpf(514));
+        String local = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+
+        String etagJson = mvc.perform(get(local).accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+        String etagCbor = mvc.perform(get(local).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etagJson, etagCbor);
+        mvc.perform(get(local).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", etagJson))
+                .andExpect(status().isOk());
+        mvc.perform(get(local).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", etagCbor))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+
+        String etagDaPagina = mvc.perform(get("/usuarios")).andReturn().getResponse().getHeader("ETag");
+        mvc.perform(get("/usuarios").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", etagDaPagina))
+                .andExpect(status().isOk());
+
+        mvc.perform(patch(local).header("If-Match", etagCbor)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Ana R. Reis\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar e devolver CBOR e Smile com os mesmos campos do JSON, em menos bytes")
+    void deveNegociarFormatosBinarios() throws Exception {
+        var cbor = new CBORMapper();
+        byte[] corpo = cbor.writeValueAsBytes(Map.of("cpf", cpf(509), "nome", "Lia Torres",
+                "nascimento", List.of(2001, 3, 4), "email", "lia.torres@example.com"));
+
+        var criado = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_CBOR).content(corpo)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn().getResponse();
+        Map<?, ?> usuario = cbor.readValue(criado.getContentAsByteArray(), Map.class);
+        assertEquals("Lia Torres", usuario.get("nome"));
+        assertEquals(List.of(2001, 3, 4), usuario.get("nascimento"));
+
+        byte[] json = mvc.perform(get("/usuarios/cpf/{cpf}", cpf(509)).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.nascimento").value("2001-03-04"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mvc.perform(get("/usuarios/cpf/{cpf}", cpf(509)).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("lia.torres@example.com", new SmileMapper().readValue(smile, Map.class).get("email"));
+        assertTrue(criado.getContentAsByteArray().length < json.length, "CBOR menor que JSON");
+        assertTrue(smile.length < json.length, "Smile menor que JSON");
+    }
+
+    @Test
+    @DisplayName("Deve fazer o check-in pelo CPF recém-cadastrado e devolver 404 para CPF sem cadastro")
+    void deveFazerCheckInPeloCpf() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Rui Barros","nascimento":"1993-11-08","email":"rui.barros@example.com"}
+                """.formatted(cpf(510));
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/usuarios/check-in/{cpf}", cpf(510).replaceAll("[.-]", "")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber());
+        mvc.perform(get("/usuarios/check-in/{cpf}", cpf(511)))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/usuarios/check-in/{cpf}", "123.456.789-00"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -21,7 +21,7 @@ class FabricaDeUsuarioTest {
     @DisplayName("Deve criar um usuário com nome, CPF, data de nascimento e email válidos")
     void deveCriarUsuarioValido() {
         String nome = "João Silva";
-        String cpf = "123.456.789-00";
+        String cpf = "123.456.789-09";
         LocalDate nascimento = LocalDate.of(1990, 1, 1);
         String email = "joao.silva@example.com";
 
@@ -79,7 +79,7 @@ class FabricaDeUsuarioTest {
     @DisplayName("Deve incluir endereço válido no usuário criado")
     void deveIncluirEnderecoValido() {
         String nome = "Ana Clara";
-        String cpf = "111.222.333-44";
+        String cpf = "111.222.333-96";
         LocalDate nascimento = LocalDate.of(1995, 7, 30);
         String email = "ana.clara@example.com";
 
@@ -97,7 +97,7 @@ class FabricaDeUsuarioTest {
     @DisplayName("Deve lançar IllegalArgumentException ao incluir endereço com CEP inválido")
     void deveLancarExcecaoCepInvalido() {
         String nome = "Pedro Henrique";
-        String cpf = "555.666.777-88";
+        String cpf = "555.666.777-20";
         LocalDate nascimento = LocalDate.of(1988, 3, 10);
         String email = "pedro.henrique@example.com";
 
@@ -142,7 +142,7 @@ class FabricaDeUsuarioTest {
     @DisplayName("Deve lançar IllegalArgumentException ao incluir endereço com número nulo")
     void deveLancarExcecaoNumeroNulo() {
         String nome = "Laura Martins";
-        String cpf = "999.888.777-66";
+        String cpf = "999.888.777-14";
         LocalDate nascimento = LocalDate.of(1992, 11, 25);
         String email = "laura.martins@example.com";
 
@@ -158,5 +158,19 @@ class FabricaDeUsuarioTest {
         assertEquals("Número não pode ser nulo", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Deve criar usuário com endereço numa única chamada, sem estado na fábrica")
+    void deveCriarUsuarioCompletoSemEstado() {
+        Usuario usuario = FabricaDeUsuario.criar("Laura Martins", "999.888.777-14", LocalDate.of(1992, 11, 25),
+                "laura.martins@example.com", "67890-123", 12, null);
+
+        assertEquals("999.888.777-14", usuario.getCpf());
+        assertEquals("67890-123", usuario.getEndereco().getCep());
+        assertNull(FabricaDeUsuario.criar("Laura Martins", "999.888.777-14", LocalDate.of(1992, 11, 25),
+                "laura.martins@example.com", null, null, null).getEndereco());
+        assertThrows(IllegalArgumentException.class, () -> FabricaDeUsuario.criar("Laura Martins", "999.888.777-14",
+                LocalDate.of(1992, 11, 25), "laura.martins@example.com", "67890-123", null, null));
+    }
+
     // Adicione mais testes conforme necessário para cobrir outros cenários
 }
@@ -69,7 +69,7 @@ public class UsuarioTest {
     @DisplayName("Deve cadastrar usuário com CPF no formato válido")
     public void deveCadastrarUsuarioComCpfNoFormatoValido() {
         // CPFs com formato válido
-        String cpfValido1 = "123.456.789-00";
+        String cpfValido1 = "123.456.789-09";
         String cpfValido2 = "935.411.347-80"; // Outro CPF válido exemplo
 
         // Dados válidos para os demais campos
@@ -196,7 +196,7 @@ public class UsuarioTest {
     @DisplayName("Deve cadastrar usuário com e-mail no formato válido")
     public void deveCadastrarUsuarioComEmailValido() {
         // Dados válidos
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Carla Mendes";
         LocalDate nascimento = of(1993, 4, 10);
         String emailValido = "carla.mendes@example.com";
@@ -227,7 +227,7 @@ public class UsuarioTest {
         String emailParcialmenteInvalido = "usuario@exemplo.c";      // Extensão de domínio muito curta
 
         // Dados válidos para os demais campos
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Fernanda Lima";
         LocalDate nascimento = of(1991, 6, 22);
 
@@ -266,7 +266,7 @@ public class UsuarioTest {
     public void naoDeveCadastrarUsuarioComEmailNulo() {
         String emailNulo = null;
 
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Gabriel Santos";
         LocalDate nascimento = of(1987, 9, 14);
 
@@ -284,7 +284,7 @@ public class UsuarioTest {
     public void naoDeveCadastrarUsuarioComEmailVazio() {
         String emailVazio = "";
 
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Ricardo Alves";
         LocalDate nascimento = of(1994, 2, 28);
 
@@ -302,7 +302,7 @@ public class UsuarioTest {
     public void naoDeveCadastrarUsuarioComEmailMultiploArroba() {
         String emailMultiploArroba = "usuario@@exemplo.com";
 
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Sofia Ribeiro";
         LocalDate nascimento = of(1996, 7, 19);
 
@@ -318,7 +318,7 @@ public class UsuarioTest {
     @Test
     @DisplayName("Não deve cadastrar usuário com CPF válido e e-mail inválido")
     public void naoDeveCadastrarUsuarioComCpfValidoEEmailInvalido() {
-        String cpfValido = "123.456.789-00";
+        String cpfValido = "123.456.789-09";
         String nome = "Lucas Silva";
         LocalDate nascimento = of(1992, 10, 5);
         String emailInvalido = "lucas.silva@exemplo"; // Sem extensão de domínio
@@ -344,4 +344,54 @@ public class UsuarioTest {
                 () -> new Usuario(cpfInvalido, nome, nascimento, emailValido));
         assertEquals("CPF inválido", exception.getMessage());
     }
+
+    /**
+     * Testa a criação de um usuário com CPF no formato correto, mas com dígito verificador incorreto.
+     * Verifica se uma IllegalArgumentException é lançada com a mensagem "CPF inválido".
+     */
+    @Test
+    @DisplayName("Não deve cadastrar usuário com CPF de dígito verificador incorreto")
+    public void naoDeveCadastrarUsuarioComDigitoVerificadorIncorreto() {
+        String cpfComDigitoIncorreto = "123.456.789-00";
+
+        String nome = "Paulo Nunes";
+        LocalDate nascimento = of(1990, 4, 2);
+        String email = "paulo.nunes@example.com";
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new Usuario(cpfComDigitoIncorreto, nome, nascimento, email));
+        assertEquals("CPF inválido", exception.getMessage());
+    }
+
+    /**
+     * Testa a criação de um usuário sem nome.
+     * Verifica se uma IllegalArgumentException é lançada com a mensagem "Nome não pode ser vazio".
+     */
+    @Test
+    @DisplayName("Não deve cadastrar usuário com nome vazio")
+    public void naoDeveCadastrarUsuarioComNomeVazio() {
+        String cpfValido = "123.456.789-09";
+        LocalDate nascimento = of(1990, 4, 2);
+        String email = "sem.nome@example.com";
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new Usuario(cpfValido, " ", nascimento, email));
+        assertEquals("Nome não pode ser vazio", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve alterar só os dados informados e manter o usuário intacto se algum for inválido")
+    public void deveAlterarSoOsDadosInformados() {
+        Usuario usuario = new Usuario("123.456.789-09", "João Silva", of(1990, 1, 1), "joao.silva@example.com");
+
+        usuario.alterar("João S. Silva", null, null);
+        assertEquals("João S. Silva", usuario.getNome());
+        assertEquals("joao.silva@example.com", usuario.getEmail());
+        assertEquals(of(1990, 1, 1), usuario.getNascimento());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> usuario.alterar("Outro Nome", null, "email-invalido"));
+        assertEquals("E-mail inválido", exception.getMessage());
+        assertEquals("João S. Silva", usuario.getNome());
+    }
 }
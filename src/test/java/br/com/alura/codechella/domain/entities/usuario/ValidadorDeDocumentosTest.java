@@ -0,0 +1,56 @@
+package br.com.alura.codechella.domain.entities.usuario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorDeDocumentosTest {
+
+    @Test
+    @DisplayName("Deve aceitar CPFs com máscara e dígitos verificadores corretos")
+    void deveAceitarCpfsValidos() {
+        assertTrue(ValidadorDeDocumentos.isCpfValido("123.456.789-09"));
+        assertTrue(ValidadorDeDocumentos.isCpfValido("935.411.347-80"));
+        assertTrue(ValidadorDeDocumentos.isCpfValido("529.982.247-25"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CPF com dígito verificador incorreto ou com todos os dígitos iguais")
+    void deveRejeitarCpfComDigitoVerificadorIncorreto() {
+        assertFalse(ValidadorDeDocumentos.isCpfValido("123.456.789-00"));
+        assertFalse(ValidadorDeDocumentos.isCpfValido("529.982.247-24"));
+        assertFalse(ValidadorDeDocumentos.isCpfValido("111.111.111-11"));
+        assertFalse(ValidadorDeDocumentos.isCpfValido("000.000.000-00"));
+    }
+
+    @Test
+    @DisplayName("Deve conferir a máscara do CPF sem calcular os dígitos verificadores")
+    void deveConferirFormatoDoCpf() {
+        assertTrue(ValidadorDeDocumentos.isFormatoDeCpfValido("123.456.789-00"));
+        assertFalse(ValidadorDeDocumentos.isFormatoDeCpfValido("12345678900"));
+        assertFalse(ValidadorDeDocumentos.isFormatoDeCpfValido("123-456.789.00"));
+        assertFalse(ValidadorDeDocumentos.isFormatoDeCpfValido("123.456.789-0A"));
+        assertFalse(ValidadorDeDocumentos.isFormatoDeCpfValido(null));
+    }
+
+    @Test
+    @DisplayName("Deve validar o CEP no formato XXXXX-XXX")
+    void deveValidarCep() {
+        assertTrue(ValidadorDeDocumentos.isCepValido("12345-678"));
+        assertFalse(ValidadorDeDocumentos.isCepValido("12345678"));
+        assertFalse(ValidadorDeDocumentos.isCepValido("1234-5678"));
+        assertFalse(ValidadorDeDocumentos.isCepValido("12345-67a"));
+        assertFalse(ValidadorDeDocumentos.isCepValido(null));
+    }
+
+    @Test
+    @DisplayName("Deve validar o e-mail com a mesma regra da expressão regular original")
+    void deveValidarEmail() {
+        assertTrue(ValidadorDeDocumentos.isEmailValido("joao.silva@example.com"));
+        assertFalse(ValidadorDeDocumentos.isEmailValido("usuario@.com"));
+        assertFalse(ValidadorDeDocumentos.isEmailValido("usuario@@exemplo.com"));
+        assertFalse(ValidadorDeDocumentos.isEmailValido(""));
+        assertFalse(ValidadorDeDocumentos.isEmailValido(null));
+    }
+}
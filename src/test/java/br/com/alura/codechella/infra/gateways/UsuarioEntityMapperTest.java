@@ -0,0 +1,48 @@
+package br.com.alura.codechella.infra.gateways;
+
+import br.com.alura.codechella.domain.entities.usuario.FabricaDeUsuario;
+import br.com.alura.codechella.domain.entities.usuario.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioEntityMapperTest {
+
+    private final UsuarioEntityMapper mapper = new UsuarioEntityMapper();
+
+    @Test
+    @DisplayName("Deve converter o usuário de domínio para o modelo JPA e de volta sem perder campos")
+    void deveConverterIdaEVolta() {
+        FabricaDeUsuario fabrica = new FabricaDeUsuario();
+        fabrica.comNomeCpfNascimentoEmail("Ana Clara", "111.222.333-96", LocalDate.of(1995, 7, 30), "ana.clara@example.com");
+        Usuario usuario = fabrica.incluiEndereco("54321-987", 50, "Casa Verde");
+        usuario.setId(7L);
+
+        Usuario convertido = mapper.toDomain(mapper.toEntity(usuario));
+
+        assertEquals(7L, convertido.getId());
+        assertEquals("111.222.333-96", convertido.getCpf());
+        assertEquals("Ana Clara", convertido.getNome());
+        assertEquals(LocalDate.of(1995, 7, 30), convertido.getNascimento());
+        assertEquals("ana.clara@example.com", convertido.getEmail());
+        assertEquals("54321-987", convertido.getEndereco().getCep());
+        assertEquals(50, convertido.getEndereco().getNumero());
+        assertEquals("Casa Verde", convertido.getEndereco().getComplemento());
+    }
+
+    @Test
+    @DisplayName("Deve manter o endereço nulo quando o modelo JPA não tiver endereço")
+    void deveManterEnderecoNulo() {
+        var entity = new br.com.alura.codechella.model.Usuario();
+        entity.setId(1L);
+        entity.setCpf("123.456.789-09");
+        entity.setNome("João Silva");
+        entity.setNascimento(LocalDate.of(1990, 1, 1));
+        entity.setEmail("joao.silva@example.com");
+
+        assertNull(mapper.toDomain(entity).getEndereco());
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmazemDeIdempotenciaEmMemoriaTest {
+
+    private static final Duration PRAZO_DA_RESERVA = Duration.ofSeconds(30);
+
+    private final AtomicLong agora = new AtomicLong();
+
+    @Test
+    @DisplayName("Deve reservar a chave uma única vez e devolver a resposta guardada")
+    void deveReservarUmaVez() {
+        var armazem = new ArmazemDeIdempotenciaEmMemoria(1000, Duration.ofMinutes(1), PRAZO_DA_RESERVA, agora::get);
+
+        assertTrue(armazem.reservar("chave", "hash").isEmpty());
+        assertTrue(armazem.reservar("chave", "hash").orElseThrow().emAndamento());
+
+        armazem.concluir("chave", new RespostaGuardada(201, "/usuarios/1", "application/json", "{}".getBytes(StandardCharsets.UTF_8)));
+        var registro = armazem.reservar("chave", "hash").orElseThrow();
+        assertEquals(201, registro.resposta().status());
+        assertEquals("/usuarios/1", registro.resposta().location());
+    }
+
+    @Test
+    @DisplayName("Deve esquecer a chave liberada ou vencida")
+    void deveEsquecerChaveLiberadaOuVencida() {
+        var armazem = new ArmazemDeIdempotenciaEmMemoria(1000, Duration.ofMinutes(1), PRAZO_DA_RESERVA, agora::get);
+
+        armazem.reservar("liberada", "hash");
+        armazem.liberar("liberada");
+        assertTrue(armazem.reservar("liberada", "hash").isEmpty());
+
+        armazem.reservar("vencida", "hash");
+        armazem.concluir("vencida", new RespostaGuardada(201, null, null, null));
+        agora.addAndGet(Duration.ofMinutes(1).toMillis());
+        assertTrue(armazem.reservar("vencida", "outro-hash").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve manter o número de chaves limitado à capacidade")
+    void deveRespeitarCapacidade() {
+        var armazem = new ArmazemDeIdempotenciaEmMemoria(640, Duration.ofHours(1), PRAZO_DA_RESERVA, agora::get);
+
+        for (int i = 0; i < 10_000; i++) armazem.reservar("chave-" + i, "hash");
+
+        assertTrue(armazem.tamanho() <= 640, "Tamanho: " + armazem.tamanho());
+        assertTrue(armazem.reservar("chave-9999", "hash").isPresent(), "As chaves mais recentes permanecem");
+    }
+
+    @Test
+    @DisplayName("Deve assumir a reserva sem resposta que passou do prazo, mas não a resposta guardada")
+    void deveAssumirReservaAbandonada() {
+        var armazem = new ArmazemDeIdempotenciaEmMemoria(1000, Duration.ofHours(1), PRAZO_DA_RESERVA, agora::get);
+        armazem.reservar("abandonada", "hash");
+        armazem.reservar("concluida", "hash");
+        armazem.concluir("concluida", new RespostaGuardada(201, null, null, null));
+
+        agora.addAndGet(PRAZO_DA_RESERVA.toMillis() - 1);
+        assertTrue(armazem.reservar("abandonada", "hash").orElseThrow().emAndamento());
+
+        agora.addAndGet(1);
+        assertTrue(armazem.reservar("abandonada", "hash").isEmpty());
+        assertTrue(armazem.reservar("abandonada", "hash").orElseThrow().emAndamento(), "A nova reserva vale por inteiro");
+        assertEquals(201, armazem.reservar("concluida", "hash").orElseThrow().resposta().status());
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+class ArmazemDeIdempotenciaJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private ArmazemDeIdempotenciaJdbc armazem;
+
+    @BeforeEach
+    void setUp() {
+        armazem = new ArmazemDeIdempotenciaJdbc(jdbc, Duration.ofMinutes(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Deve reservar a chave uma única vez e devolver a resposta guardada")
+    void deveReservarUmaVez() {
+        assertTrue(armazem.reservar("chave", "hash").isEmpty());
+        assertTrue(armazem.reservar("chave", "hash").orElseThrow().emAndamento());
+
+        var cbor = new RespostaGuardada(201, "/usuarios/1", "application/cbor", new byte[]{(byte) 0xa1, 0x62, 0x69, 0x64, 0x01});
+        armazem.concluir("chave", cbor);
+        var registro = armazem.reservar("chave", "hash").orElseThrow();
+        assertEquals(cbor, registro.resposta());
+    }
+
+    @Test
+    @DisplayName("Deve repetir como JSON a resposta guardada antes do corpo serializado")
+    void deveLerRespostaGuardadaEmTexto() {
+        jdbc.update("""
+                        insert into chaves_de_idempotencia (chave, hash_da_requisicao, status, location, corpo, expira_em)
+                        values ('texto', 'hash', 201, '/usuarios/2', '{"id":2}', ?)""",
+                Timestamp.from(Instant.now().plusSeconds(60)));
+
+        var registro = armazem.reservar("texto", "hash").orElseThrow();
+        assertEquals(new RespostaGuardada(201, "/usuarios/2", "application/json", "{\"id\":2}".getBytes(StandardCharsets.UTF_8)),
+                registro.resposta());
+    }
+
+    @Test
+    @DisplayName("Deve liberar só a reserva ainda não concluída e substituir a vencida")
+    void deveLiberarESubstituirVencida() {
+        armazem.reservar("liberada", "hash");
+        armazem.liberar("liberada");
+        assertTrue(armazem.reservar("liberada", "hash").isEmpty());
+
+        armazem.concluir("liberada", new RespostaGuardada(201, null, null, null));
+        armazem.liberar("liberada");
+        assertTrue(armazem.reservar("liberada", "hash").isPresent(), "Resposta concluída não é liberada");
+
+        jdbc.update("update chaves_de_idempotencia set expira_em = expira_em - interval '2' minute where chave = 'liberada'");
+        assertTrue(armazem.reservar("liberada", "outro-hash").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve assumir a reserva sem resposta que passou do prazo, inclusive a gravada sem o momento da reserva")
+    void deveAssumirReservaAbandonada() {
+        armazem.reservar("abandonada", "hash");
+        assertTrue(armazem.reservar("abandonada", "hash").orElseThrow().emAndamento());
+
+        jdbc.update("update chaves_de_idempotencia set reservada_em = reservada_em - interval '31' second where chave = 'abandonada'");
+        assertTrue(armazem.reservar("abandonada", "hash").isEmpty());
+        assertTrue(armazem.reservar("abandonada", "hash").orElseThrow().emAndamento(), "Só uma retentativa a assume");
+
+        jdbc.update("insert into chaves_de_idempotencia (chave, hash_da_requisicao, expira_em) values ('antiga', 'hash', ?)",
+                Timestamp.from(Instant.now().plusSeconds(60)));
+        assertTrue(armazem.reservar("antiga", "hash").isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.alura.codechella.infra.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequisicoesIdempotentesTest {
+
+    private final ArmazemDeIdempotenciaEmMemoria armazem =
+            new ArmazemDeIdempotenciaEmMemoria(1000, Duration.ofHours(1), Duration.ofSeconds(30));
+    private final RequisicoesIdempotentes requisicoes = new RequisicoesIdempotentes(armazem, new ObjectMapper(),
+            List.of(new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter()));
+
+    @Test
+    @DisplayName("Deve liberar a chave também quando a execução terminar num Error")
+    void deveLiberarAChaveAposError() {
+        assertThrows(StackOverflowError.class, () -> requisicoes.executar("chave", null, "corpo", () -> {
+            throw new StackOverflowError();
+        }));
+
+        assertEquals(0, armazem.tamanho());
+        var resposta = requisicoes.executar("chave", null, "corpo", () -> ResponseEntity.ok("executada de novo"));
+        assertEquals("executada de novo", resposta.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve repetir os bytes no formato negociado pela requisição original, com o mesmo Content-Type")
+    void deveRepetirOsBytesDoFormatoNegociado() throws Exception {
+        Map<String, Object> corpo = Map.of("nome", "Lia Torres", "nascimento", List.of(2001, 3, 4));
+        requisicoes.executar("cbor", "application/json;q=0.5, application/cbor", "corpo",
+                () -> ResponseEntity.status(201).body(corpo));
+
+        var repetida = requisicoes.executar("cbor", MediaType.APPLICATION_JSON_VALUE, "corpo",
+                () -> fail("A retentativa não executa de novo"));
+
+        assertEquals(MediaType.APPLICATION_CBOR, repetida.getHeaders().getContentType());
+        assertEquals(List.of(HttpHeaders.ACCEPT), repetida.getHeaders().getVary());
+        assertArrayEquals(new CBORMapper().writeValueAsBytes(corpo), (byte[]) repetida.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve guardar em JSON quando o Accept não for informado")
+    void deveGuardarEmJsonSemAccept() {
+        requisicoes.executar("json", null, "corpo", () -> ResponseEntity.ok(Map.of("id", 1)));
+
+        var repetida = requisicoes.executar("json", null, "corpo", () -> fail("A retentativa não executa de novo"));
+
+        assertEquals(MediaType.APPLICATION_JSON, repetida.getHeaders().getContentType());
+        assertEquals("{\"id\":1}", new String((byte[]) repetida.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.alura.codechella.infra.limites;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaldeDeFichasTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    private final AtomicLong agora = new AtomicLong(42 * SEGUNDO);
+
+    @Test
+    @DisplayName("Deve liberar a rajada de uma vez e depois uma ficha por intervalo")
+    void deveLiberarRajadaEDepoisNaTaxa() {
+        var balde = new BaldeDeFichas(10, 5, agora::get);
+
+        for (int i = 0; i < 5; i++) assertTrue(balde.tentarConsumir(), "Ficha " + i + " da rajada");
+        assertFalse(balde.tentarConsumir());
+        assertEquals(SEGUNDO / 10, balde.esperaPorFicha());
+
+        agora.addAndGet(SEGUNDO / 10);
+        assertTrue(balde.tentarConsumir());
+        assertFalse(balde.tentarConsumir());
+    }
+
+    @Test
+    @DisplayName("Não deve acumular mais fichas que a rajada após longo tempo parado")
+    void naoDeveAcumularAlemDaRajada() {
+        var balde = new BaldeDeFichas(10, 3, agora::get);
+        agora.addAndGet(60 * SEGUNDO);
+
+        int consumidas = 0;
+        while (balde.tentarConsumir()) consumidas++;
+        assertEquals(3, consumidas);
+    }
+
+    @Test
+    @DisplayName("Não deve conceder mais fichas que a rajada sob concorrência")
+    void naoDeveConcederFichasAMaisComThreadsConcorrentes() throws InterruptedException {
+        var balde = new BaldeDeFichas(10, 1000, agora::get);
+        var concedidas = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 500; j++) if (balde.tentarConsumir()) concedidas.incrementAndGet();
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(1000, concedidas.get());
+    }
+}
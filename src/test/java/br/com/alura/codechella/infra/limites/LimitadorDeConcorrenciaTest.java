@@ -0,0 +1,60 @@
+package br.com.alura.codechella.infra.limites;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorDeConcorrenciaTest {
+
+    private static final long ALVO = 100_000_000L;
+
+    private final AtomicLong agora = new AtomicLong();
+
+    @Test
+    @DisplayName("Deve recusar além do limite e liberar a vaga ao fim da requisição")
+    void deveRecusarAlemDoLimite() {
+        var limitador = new LimitadorDeConcorrencia(2, 1, 10, ALVO, agora::get);
+
+        assertTrue(limitador.tentarAdquirir());
+        assertTrue(limitador.tentarAdquirir());
+        assertFalse(limitador.tentarAdquirir());
+
+        limitador.liberar(ALVO / 2, false);
+        assertTrue(limitador.tentarAdquirir());
+    }
+
+    @Test
+    @DisplayName("Deve crescer com respostas rápidas no limite e cair com respostas lentas")
+    void deveAjustarPelaLatencia() {
+        var limitador = new LimitadorDeConcorrencia(10, 1, 20, ALVO, agora::get);
+        for (int i = 0; i < 10; i++) limitador.tentarAdquirir();
+        limitador.liberar(ALVO / 2, false);
+        assertEquals(11, limitador.limite());
+
+        limitador.liberar(ALVO * 2, false);
+        assertEquals(9, limitador.limite());
+        limitador.liberar(ALVO * 2, false);
+        assertEquals(9, limitador.limite(), "Uma redução por janela de latência alvo");
+
+        agora.addAndGet(ALVO);
+        limitador.liberar(0, true);
+        assertEquals(8, limitador.limite());
+    }
+
+    @Test
+    @DisplayName("Deve manter o limite entre o mínimo e o máximo")
+    void deveRespeitarMinimoEMaximo() {
+        var limitador = new LimitadorDeConcorrencia(2, 2, 2, ALVO, agora::get);
+        limitador.tentarAdquirir();
+        limitador.tentarAdquirir();
+        limitador.liberar(0, false);
+        assertEquals(2, limitador.limite());
+
+        agora.addAndGet(ALVO);
+        limitador.liberar(ALVO * 10, true);
+        assertEquals(2, limitador.limite());
+    }
+}
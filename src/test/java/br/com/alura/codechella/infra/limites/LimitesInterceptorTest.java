@@ -0,0 +1,88 @@
+package br.com.alura.codechella.infra.limites;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "codechella.limites.cabecalho-do-cliente=X-Cliente",
+        "codechella.limites.buscar.taxa-por-segundo=0.1",
+        "codechella.limites.buscar.rajada=2",
+        "codechella.limites.detalharPorCpf.concorrencia-minima=0",
+        "codechella.limites.detalharPorCpf.concorrencia-maxima=0"
+})
+@AutoConfigureMockMvc
+class LimitesInterceptorTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    @DisplayName("Deve responder 429 ao cliente que passar da rajada, sem afetar outro cliente")
+    void deveLimitarTaxaPorCliente() throws Exception {
+        double rejeicoesAntes = rejeicoesPorTaxa();
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/usuarios/busca").param("q", "ana").header("X-Cliente", "a"))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/usuarios/busca").param("q", "ana").header("X-Cliente", "a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mvc.perform(get("/usuarios/busca").param("q", "ana").header("X-Cliente", "b"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, rejeicoesPorTaxa() - rejeicoesAntes);
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 quando o endpoint estiver no limite de concorrência")
+    void deveRecusarAlemDaConcorrencia() throws Exception {
+        mvc.perform(get("/usuarios/cpf/{cpf}", "123.456.789-09"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        assertEquals(0, registry.get("codechella.limites.concorrencia.limite")
+                .tag("endpoint", "detalharPorCpf").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve identificar o cliente pelo X-Forwarded-For vindo de proxy interno")
+    void deveIdentificarClientePeloIpEncaminhado() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(HttpStatus.OK, buscarVia("203.0.113.1"));
+        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, buscarVia("203.0.113.1"));
+        assertEquals(HttpStatus.OK, buscarVia("203.0.113.2"));
+    }
+
+    private double rejeicoesPorTaxa() {
+        return registry.counter("codechella.limites.rejeicoes", "endpoint", "buscar", "motivo", "taxa").count();
+    }
+
+    private HttpStatus buscarVia(String ip) {
+        var cabecalhos = new HttpHeaders();
+        cabecalhos.set("X-Forwarded-For", ip);
+        return HttpStatus.valueOf(rest.exchange("/usuarios/busca?q=ana", HttpMethod.GET, new HttpEntity<>(cabecalhos), String.class)
+                .getStatusCode().value());
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.alura.codechella.infra.replicas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicasDeLeituraTest {
+
+    private static final String CONSULTA_DE_ATRASO = "select segundos from atraso";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcDataSource primario;
+    private JdbcDataSource replicaA;
+    private JdbcDataSource replicaB;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primario = banco("rodizio-primario");
+        replicaA = banco("rodizio-a");
+        replicaB = banco("rodizio-b");
+        for (DataSource replica : List.of(replicaA, replicaB)) {
+            executar(replica, "create table if not exists atraso (segundos double)");
+            executar(replica, "delete from atraso");
+            executar(replica, "insert into atraso values (0)");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve alternar as leituras entre as réplicas disponíveis")
+    void deveAlternarEntreAsReplicas() throws SQLException {
+        var replicas = replicas(replicaA, replicaB);
+        replicas.verificar();
+        DataSource leitura = replicas.comReservaNo(primario);
+
+        assertEquals(List.of("rodizio-a", "rodizio-b", "rodizio-a", "rodizio-b"),
+                List.of(banco(leitura), banco(leitura), banco(leitura), banco(leitura)));
+        assertEquals(0, registry.get("codechella.replicas.desvios").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve tirar do rodízio a réplica com atraso acima do máximo até que ela alcance o primário")
+    void deveTirarReplicaAtrasadaDoRodizio() throws SQLException {
+        var replicas = replicas(replicaA, replicaB);
+        executar(replicaB, "update atraso set segundos = 30");
+        replicas.verificar();
+        DataSource leitura = replicas.comReservaNo(primario);
+
+        assertEquals(List.of("rodizio-a", "rodizio-a"), List.of(banco(leitura), banco(leitura)));
+        assertEquals(30, registry.get("codechella.replicas.atraso").tag("replica", "replica-1").gauge().value());
+
+        executar(replicaB, "update atraso set segundos = 1");
+        replicas.verificar();
+        assertEquals(2, replicas.disponiveis());
+    }
+
+    @Test
+    @DisplayName("Deve ler no primário quando nenhuma réplica estiver disponível")
+    void deveLerNoPrimarioSemReplicaDisponivel() throws SQLException {
+        JdbcDataSource foraDoAr = new JdbcDataSource();
+        foraDoAr.setURL("jdbc:h2:mem:replica-inexistente;IFEXISTS=TRUE");
+        var replicas = replicas(foraDoAr);
+        replicas.verificar();
+
+        assertEquals(0, replicas.disponiveis());
+        assertEquals("rodizio-primario", banco(replicas.comReservaNo(primario)));
+        assertEquals(1, registry.get("codechella.replicas.desvios").counter().count());
+    }
+
+    private ReplicasDeLeitura replicas(DataSource... replicas) {
+        return new ReplicasDeLeitura(List.of(replicas), Duration.ofSeconds(5), CONSULTA_DE_ATRASO, Duration.ofSeconds(5), registry);
+    }
+
+    private static JdbcDataSource banco(String nome) {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static String banco(DataSource dataSource) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery("select lower(database())")) {
+            resultado.next();
+            return resultado.getString(1);
+        }
+    }
+
+    private static void executar(DataSource dataSource, String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.alura.codechella.infra.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrosDoBancoTest {
+
+    @Test
+    @DisplayName("Deve reconhecer a violação de índice único pelo SQLState em qualquer ponto da cadeia de causas")
+    void deveReconhecerViolacaoDeUnicidadePeloSqlState() {
+        var duplicado = new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException(new SQLException("duplicate key value violates unique constraint", "23505")));
+        var longoDemais = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("value too long for type character varying(255)", "22001"));
+        var nulo = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("null value in column \"email\"", "23502"));
+
+        assertTrue(ErrosDoBanco.violouUnicidade(duplicado));
+        assertFalse(ErrosDoBanco.violouUnicidade(longoDemais));
+        assertFalse(ErrosDoBanco.violouUnicidade(nulo));
+        assertFalse(ErrosDoBanco.violouUnicidade(new IllegalStateException("sem causa do banco")));
+    }
+
+    @Test
+    @DisplayName("Deve separar dados recusados pelo banco de falhas que uma nova tentativa pode resolver")
+    void deveSepararDadosRecusadosDeFalhasTransitorias() {
+        var longoDemais = new RuntimeException(new SQLException("value too long", "22001"));
+        var duplicado = new RuntimeException(new SQLException("duplicate key", "23505"));
+        var semConexao = new RuntimeException(new SQLException("connection refused", "08001"));
+        var impasse = new RuntimeException(new SQLException("deadlock detected", "40P01"));
+
+        assertTrue(ErrosDoBanco.recusouOsDados(longoDemais));
+        assertTrue(ErrosDoBanco.recusouOsDados(duplicado));
+        assertFalse(ErrosDoBanco.recusouOsDados(semConexao));
+        assertFalse(ErrosDoBanco.recusouOsDados(impasse));
+        assertFalse(ErrosDoBanco.recusouOsDados(new IllegalStateException("sem causa do banco")));
+    }
+
+    @Test
+    @DisplayName("Deve trocar a mensagem do driver por um motivo fixo, pela classe do SQLState")
+    void deveDarMotivoFixoPeloSqlState() {
+        var duplicado = new RuntimeException(new SQLException("duplicate key value (cpf)=(123.456.789-09)", "23505"));
+        var longoDemais = new RuntimeException(new SQLException("value too long for type character varying(255)", "22001"));
+        var nulo = new RuntimeException(new SQLException("null value in column \"email\"", "23502"));
+        var checagem = new RuntimeException(new SQLException("violates check constraint \"ck_usuarios\"", "23514"));
+        var dataInvalida = new RuntimeException(new SQLException("date/time field value out of range", "22008"));
+
+        assertEquals("Usuário já cadastrado", ErrosDoBanco.motivo(duplicado));
+        assertEquals("Valor maior que o tamanho da coluna", ErrosDoBanco.motivo(longoDemais));
+        assertEquals("Campo obrigatório ausente", ErrosDoBanco.motivo(nulo));
+        assertEquals("Dados fora das restrições do cadastro", ErrosDoBanco.motivo(checagem));
+        assertEquals("Valor inválido para a coluna", ErrosDoBanco.motivo(dataInvalida));
+        assertNull(ErrosDoBanco.motivo(new RuntimeException(new SQLException("connection refused", "08001"))));
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.alura.codechella.infra.sql;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorDeConsultasLentasTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("codechella.consultas-lentas");
+    private final ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() {
+        eventos.start();
+        logger.addAppender(eventos);
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:consultas-lentas;DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(eventos);
+    }
+
+    @Test
+    @DisplayName("Deve registrar comando acima do limite com duração, parâmetros e SQL")
+    void deveRegistrarComandoLento() throws Exception {
+        DataSource dataSource = new MonitorDeConsultasLentas(0, 1.0).envolver(h2);
+
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement comando = conexao.prepareStatement("select ? + ?")) {
+            comando.setInt(1, 1);
+            comando.setInt(2, 2);
+            comando.executeQuery().close();
+        }
+
+        assertEquals(1, eventos.list.size());
+        String mensagem = eventos.list.get(0).getFormattedMessage();
+        assertTrue(mensagem.startsWith("consulta_lenta duracao_ms="), mensagem);
+        assertTrue(mensagem.contains("parametros=2 lote=0 sql=\"select ? + ?\""), mensagem);
+    }
+
+    @Test
+    @DisplayName("Não deve registrar comandos abaixo do limite")
+    void naoDeveRegistrarComandoRapido() throws Exception {
+        DataSource dataSource = new MonitorDeConsultasLentas(60_000, 1.0).envolver(h2);
+
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement comando = conexao.prepareStatement("select 1")) {
+            comando.executeQuery().close();
+        }
+
+        assertTrue(eventos.list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve registrar o tamanho do lote e contar só os parâmetros ligados")
+    void deveRegistrarLoteEParametrosLigados() throws Exception {
+        DataSource dataSource = new MonitorDeConsultasLentas(0, 1.0).envolver(h2);
+
+        try (Connection conexao = dataSource.getConnection()) {
+            try (Statement comando = conexao.createStatement()) {
+                comando.execute("create table if not exists lote_monitorado (numero int, texto varchar(10))");
+            }
+            eventos.list.clear();
+            try (PreparedStatement comando = conexao.prepareStatement("insert into lote_monitorado values (?, '?')")) {
+                for (int i = 0; i < 3; i++) {
+                    comando.setInt(1, i);
+                    comando.addBatch();
+                }
+                comando.executeBatch();
+            }
+        }
+
+        String mensagem = eventos.list.get(0).getFormattedMessage();
+        assertTrue(mensagem.contains("parametros=1 lote=3 sql=\"insert into lote_monitorado values (?, '?')\""), mensagem);
+    }
+
+    @Test
+    @DisplayName("Deve registrar também os comandos de prepareCall, fora do caminho de prepareStatement")
+    void deveRegistrarChamadas() throws Exception {
+        DataSource dataSource = new MonitorDeConsultasLentas(0, 1.0).envolver(h2);
+
+        try (Connection conexao = dataSource.getConnection();
+             CallableStatement comando = conexao.prepareCall("call abs(?)")) {
+            comando.setInt(1, -1);
+            comando.execute();
+        }
+
+        assertTrue(eventos.list.get(0).getFormattedMessage().contains("parametros=1 lote=0 sql=\"call abs(?)\""),
+                eventos.list.get(0).getFormattedMessage());
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.alura.codechella.repository;
+
+import br.com.alura.codechella.model.Endereco;
+import br.com.alura.codechella.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UsuarioRepositoryTest {
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 40; i++) {
+            Usuario usuario = usuario(i);
+            Endereco endereco = new Endereco();
+            endereco.setCep("01310-100");
+            endereco.setNumero(i);
+            endereco.setComplemento("Apto " + i);
+            usuario.setEndereco(endereco);
+            repository.save(usuario);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    @DisplayName("Deve listar usuários com endereço em uma única consulta, qualquer que seja a quantidade")
+    void deveListarUsuariosComEnderecoEmUmaConsulta() {
+        List<Usuario> dez = repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10));
+        dez.forEach(u -> assertNotNull(u.getEndereco().getCep()));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        entityManager.clear();
+        estatisticas.clear();
+
+        List<Usuario> quarenta = repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(40));
+        quarenta.forEach(u -> assertNotNull(u.getEndereco().getCep()));
+        assertEquals(40, quarenta.size());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deve persistir e recuperar o endereço junto com o usuário")
+    void devePersistirEndereco() {
+        Usuario usuario = repository.findByCpf(usuario(7).getCpf()).orElseThrow();
+
+        assertEquals("01310-100", usuario.getEndereco().getCep());
+        assertEquals(7, usuario.getEndereco().getNumero());
+        assertEquals("Apto 7", usuario.getEndereco().getComplemento());
+    }
+}
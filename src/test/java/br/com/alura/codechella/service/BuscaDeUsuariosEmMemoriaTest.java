@@ -0,0 +1,73 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.PaginaDaBusca;
+import br.com.alura.codechella.dto.ResultadoDaBusca;
+import br.com.alura.codechella.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscaDeUsuariosEmMemoriaTest {
+
+    private final BuscaDeUsuariosEmMemoria busca = new BuscaDeUsuariosEmMemoria(null);
+
+    @BeforeEach
+    void setUp() {
+        indexar(1, "Mariana Souza", "mari@example.com");
+        indexar(2, "Ana Mariano", "ana.mariano@example.com");
+        indexar(3, "João Pedro", "jp@example.com");
+        indexar(4, "Pedro Marinho", "pedro.m@example.com");
+    }
+
+    @Test
+    @DisplayName("Deve gerar os trigramas de cada palavra como o pg_trgm")
+    void deveGerarTrigramasComoPgTrgm() {
+        assertEquals(Set.of("  a", " an", "ana", "na ", "  m", " mo", "mo "), BuscaDeUsuariosEmMemoria.trigramas("Ana.Mo"));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por relevância, com quem começa pelo termo à frente")
+    void deveOrdenarPorRelevancia() {
+        PaginaDaBusca pagina = busca.buscar("Mari", 0, 10);
+
+        List<Long> ids = pagina.conteudo().stream().map(ResultadoDaBusca::id).toList();
+        assertEquals(1L, ids.get(0), "Nome e e-mail começam pelo termo");
+        assertTrue(ids.containsAll(List.of(2L, 4L)));
+        assertFalse(ids.contains(3L));
+        assertEquals(1.0, pagina.conteudo().get(0).relevancia());
+    }
+
+    @Test
+    @DisplayName("Deve paginar os resultados e reindexar usuário alterado")
+    void devePaginarEReindexar() {
+        PaginaDaBusca primeira = busca.buscar("pedro", 0, 1);
+        assertEquals(1, primeira.conteudo().size());
+        assertTrue(primeira.temProxima());
+        assertFalse(busca.buscar("pedro", 1, 1).temProxima());
+
+        indexar(3, "João Silva", "jsilva@example.com");
+        assertEquals(List.of(4L), busca.buscar("pedro", 0, 10).conteudo().stream().map(ResultadoDaBusca::id).toList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar termo vazio ou curto e páginas além do limite de resultados")
+    void deveRejeitarBuscaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar(" ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar(" an ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar("ana", 20, 50));
+    }
+
+    private void indexar(long id, String nome, String email) {
+        Usuario usuario = usuario((int) id);
+        usuario.setId(id);
+        usuario.setNome(nome);
+        usuario.setEmail(email);
+        busca.indexar(usuario);
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.CpfDoUsuario;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DiretorioDeCpfsTest {
+
+    private final UsuarioRepository repository = mock(UsuarioRepository.class);
+
+    @Test
+    @DisplayName("Deve encontrar o id pelo CPF com ou sem máscara, sem ir ao banco")
+    void deveEncontrarPeloCpfComOuSemMascara() {
+        var diretorio = diretorio(100, false);
+        diretorio.registrar(cpf(1), 42);
+
+        assertEquals(OptionalLong.of(42), diretorio.buscarId(cpf(1)));
+        assertEquals(OptionalLong.of(42), diretorio.buscarId(cpf(1).replaceAll("[.-]", "")));
+        verify(repository, never()).buscarIdPorCpf(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve crescer além da capacidade inicial mantendo todos os CPFs, no heap e fora dele")
+    void deveCrescerAlemDaCapacidadeInicial() {
+        for (boolean foraDoHeap : new boolean[]{false, true}) {
+            var diretorio = diretorio(1, foraDoHeap);
+            for (int n = 0; n < 10_000; n++) diretorio.registrar(cpf(n), n + 1);
+            diretorio.registrar(cpf(0), 1);
+
+            assertEquals(10_000, diretorio.tamanho());
+            for (int n = 0; n < 10_000; n++) assertEquals(OptionalLong.of(n + 1), diretorio.buscarId(cpf(n)));
+        }
+        verify(repository, never()).buscarIdPorCpf(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve aquecer a partir do banco ignorando CPFs gravados fora do formato")
+    void deveAquecerIgnorandoCpfsInvalidos() {
+        var diretorio = diretorio(100, false);
+        when(repository.findCpfsBy()).thenReturn(Stream.of(
+                new CpfDoUsuario(1L, cpf(1)),
+                new CpfDoUsuario(2L, "000.000.000-00"),
+                new CpfDoUsuario(3L, "123.456"),
+                new CpfDoUsuario(4L, null),
+                new CpfDoUsuario(5L, cpf(5))));
+
+        diretorio.carregar();
+
+        assertEquals(2, diretorio.tamanho());
+        assertEquals(OptionalLong.of(1), diretorio.buscarId(cpf(1)));
+        assertEquals(OptionalLong.of(5), diretorio.buscarId(cpf(5)));
+        verify(repository, never()).buscarIdPorCpf(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve registrar o usuário cadastrado e ignorar a alteração")
+    void deveRegistrarSoUsuarioCadastrado() {
+        var diretorio = diretorio(100, false);
+
+        diretorio.aposGravar(new UsuarioGravado(usuario(cpf(2), 20L), true));
+        diretorio.aposGravar(new UsuarioGravado(usuario(cpf(3), 30L), false));
+
+        assertEquals(1, diretorio.tamanho());
+        assertEquals(OptionalLong.of(20), diretorio.buscarId(cpf(2)));
+        verify(repository, never()).buscarIdPorCpf(cpf(2));
+    }
+
+    @Test
+    @DisplayName("Deve procurar no banco o CPF ausente e guardar o que encontrar")
+    void deveProcurarNoBancoCpfAusente() {
+        var diretorio = diretorio(100, false);
+        when(repository.buscarIdPorCpf(cpf(7))).thenReturn(Optional.of(70L));
+        when(repository.buscarIdPorCpf(cpf(8))).thenReturn(Optional.empty());
+
+        assertEquals(OptionalLong.of(70), diretorio.buscarId(cpf(7)));
+        assertEquals(OptionalLong.of(70), diretorio.buscarId(cpf(7)));
+        assertEquals(OptionalLong.empty(), diretorio.buscarId(cpf(8)));
+        verify(repository, times(1)).buscarIdPorCpf(cpf(7));
+    }
+
+    @Test
+    @DisplayName("Deve lembrar o CPF sem cadastro até a validade da ausência ou até ele ser cadastrado aqui")
+    void deveLembrarCpfSemCadastro() {
+        var relogio = new AtomicLong();
+        var diretorio = new DiretorioDeCpfs(repository, 100, false, 16, Duration.ofSeconds(5),
+                new SimpleMeterRegistry(), relogio::get);
+        when(repository.buscarIdPorCpf(cpf(8))).thenReturn(Optional.empty());
+        when(repository.buscarIdPorCpf(cpf(9))).thenReturn(Optional.empty());
+
+        assertEquals(OptionalLong.empty(), diretorio.buscarId(cpf(8)));
+        assertEquals(OptionalLong.empty(), diretorio.buscarId(cpf(8)));
+        verify(repository, times(1)).buscarIdPorCpf(cpf(8));
+        relogio.set(5_000);
+        assertEquals(OptionalLong.empty(), diretorio.buscarId(cpf(8)));
+        verify(repository, times(2)).buscarIdPorCpf(cpf(8));
+
+        assertEquals(OptionalLong.empty(), diretorio.buscarId(cpf(9)));
+        diretorio.registrar(cpf(9), 90);
+        assertEquals(OptionalLong.of(90), diretorio.buscarId(cpf(9)));
+        verify(repository, times(1)).buscarIdPorCpf(cpf(9));
+    }
+
+    @Test
+    @DisplayName("Deve recusar capacidade acima do máximo em vez de estourar o tamanho do buffer")
+    void deveRecusarCapacidadeAcimaDoMaximo() {
+        assertThrows(IllegalArgumentException.class, () -> diretorio(60_000_000, true));
+    }
+
+    @Test
+    @DisplayName("Deve recusar CPF com caracteres estranhos, quantidade errada de dígitos ou dígito verificador errado")
+    void deveRecusarCpfInvalido() {
+        var diretorio = diretorio(100, false);
+
+        assertThrows(IllegalArgumentException.class, () -> diretorio.buscarId("123.456.789-0a"));
+        assertThrows(IllegalArgumentException.class, () -> diretorio.buscarId("123.456.789-0"));
+        assertThrows(IllegalArgumentException.class, () -> diretorio.buscarId("123.456.789-00"));
+        verify(repository, never()).buscarIdPorCpf(anyString());
+    }
+
+    private static Usuario usuario(String cpf, long id) {
+        var usuario = new Usuario();
+        usuario.setCpf(cpf);
+        usuario.setId(id);
+        return usuario;
+    }
+
+    private DiretorioDeCpfs diretorio(int capacidadeInicial, boolean foraDoHeap) {
+        return new DiretorioDeCpfs(repository, capacidadeInicial, foraDoHeap, 1024, Duration.ZERO,
+                new SimpleMeterRegistry(), System::currentTimeMillis);
+    }
+}
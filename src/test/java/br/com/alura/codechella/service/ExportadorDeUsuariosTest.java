@@ -0,0 +1,46 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ExportadorDeUsuarios.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ExportadorDeUsuariosTest {
+
+    @Autowired
+    private ExportadorDeUsuarios exportador;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Test
+    @DisplayName("Deve exportar um usuário por linha em NDJSON, em ordem de id")
+    void deveExportarUmUsuarioPorLinha() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            repository.save(usuario(i));
+        }
+
+        var saida = new ByteArrayOutputStream();
+        long exportados = exportador.exportarNdjson(saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exportados);
+        assertEquals(3, linhas.length);
+        for (String linha : linhas) assertTrue(linha.startsWith("{") && linha.endsWith("}"), linha);
+        assertTrue(linhas[0].contains("\"email\":\"usuario0@example.com\""));
+        assertTrue(linhas[2].contains("\"nome\":\"Usuário 2\""));
+    }
+}
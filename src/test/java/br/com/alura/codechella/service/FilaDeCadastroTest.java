@@ -0,0 +1,154 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.StatusDoCadastro;
+import br.com.alura.codechella.dto.StatusDoCadastro.Situacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "codechella.cadastro-assincrono.habilitado=true",
+        "spring.datasource.url=jdbc:h2:mem:cadastro-assincrono;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+})
+@AutoConfigureMockMvc
+class FilaDeCadastroTest {
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("codechella.cadastro-assincrono.journal", () -> diretorio.resolve("cadastros.journal").toString());
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private ImportadorDeUsuarios importador;
+
+    @Test
+    @DisplayName("Deve aceitar o cadastro com 202 e gravá-lo em segundo plano")
+    void deveGravarEmSegundoPlano() throws Exception {
+        String corpo = """
+                {"cpf":"%s","nome":"Ana Clara","nascimento":"1995-07-30","email":"ana.assincrona@example.com"}
+                """.formatted(cpf(700));
+
+        var aceito = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.situacao").value("PENDENTE"))
+                .andExpect(jsonPath("$.usuarioId").isNumber())
+                .andReturn();
+        String situacaoUri = aceito.getResponse().getHeader("Location");
+        long reservado = objectMapper.readTree(aceito.getResponse().getContentAsString()).get("usuarioId").asLong();
+
+        var situacao = aguardarConclusao(situacaoUri);
+        assertEquals("CONCLUIDO", situacao.get("situacao").asText());
+        assertEquals(reservado, situacao.get("usuarioId").asLong());
+        mvc.perform(get("/usuarios/{id}", reservado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cpf").value(cpf(700)));
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Deve manter o cadastro pendente e tentar de novo quando o banco falhar, sem rejeitá-lo")
+    void deveTentarDeNovoQuandoOBancoFalhar() throws Exception {
+        doThrow(new CannotGetJdbcConnectionException("banco fora do ar"))
+                .doCallRealMethod()
+                .when(importador).cadastrarEmLote(any());
+        String corpo = """
+                {"cpf":"%s","nome":"Bruno Dias","nascimento":"1991-03-15","email":"bruno.assincrono@example.com"}
+                """.formatted(cpf(701));
+
+        var aceito = mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        long reservado = objectMapper.readTree(aceito.getResponse().getContentAsString()).get("usuarioId").asLong();
+
+        var situacao = aguardarConclusao(aceito.getResponse().getHeader("Location"));
+        assertEquals("CONCLUIDO", situacao.get("situacao").asText());
+        assertEquals(reservado, situacao.get("usuarioId").asLong());
+        verify(importador, times(2)).cadastrarEmLote(any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver 400 sem enfileirar quando a validação do domínio rejeitar o usuário")
+    void deveValidarAntesDeEnfileirar() throws Exception {
+        String corpo = """
+                {"cpf":"123.456.789-00","nome":"Maria Souza","nascimento":"1985-05-20","email":"maria.souza@example.com"}
+                """;
+
+        mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve devolver 404 para protocolo desconhecido")
+    void deveDevolver404ParaProtocoloDesconhecido() throws Exception {
+        mvc.perform(get("/usuarios/cadastros/{protocolo}", "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Deve manter a situação pendente além da retenção e expirar só a final")
+    void deveExpirarSomenteSituacaoFinal() {
+        var relogio = new AtomicLong();
+        var situacoes = FilaDeCadastro.situacoes(Duration.ofMinutes(1), relogio::get);
+        var protocolo = UUID.randomUUID();
+
+        situacoes.put(protocolo, StatusDoCadastro.pendente(protocolo, 1L));
+        relogio.addAndGet(Duration.ofHours(2).toNanos());
+        assertNotNull(situacoes.getIfPresent(protocolo));
+
+        situacoes.put(protocolo, new StatusDoCadastro(protocolo, Situacao.CONCLUIDO, 1L, null));
+        relogio.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertNotNull(situacoes.getIfPresent(protocolo));
+        relogio.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertNull(situacoes.getIfPresent(protocolo));
+    }
+
+    private com.fasterxml.jackson.databind.JsonNode aguardarConclusao(String uri) throws Exception {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (true) {
+            var resposta = mvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse();
+            var situacao = objectMapper.readTree(resposta.getContentAsString());
+            if (!"PENDENTE".equals(situacao.get("situacao").asText())) return situacao;
+            assertTrue(System.currentTimeMillis() < limite, "O cadastro não saiu da fila a tempo");
+            Thread.sleep(50);
+        }
+    }
+}
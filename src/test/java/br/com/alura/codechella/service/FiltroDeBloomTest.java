@@ -0,0 +1,31 @@
+package br.com.alura.codechella.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroDeBloomTest {
+
+    @Test
+    @DisplayName("Não deve ter falsos negativos para valores adicionados")
+    void naoDeveTerFalsosNegativos() {
+        FiltroDeBloom filtro = new FiltroDeBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filtro.adicionar(cpf(i));
+
+        for (int i = 0; i < 10_000; i++) assertTrue(filtro.talvezContenha(cpf(i)));
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falsos positivos próxima da configurada")
+    void deveManterTaxaDeFalsosPositivos() {
+        FiltroDeBloom filtro = new FiltroDeBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filtro.adicionar(cpf(i));
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) if (filtro.talvezContenha(cpf(i))) falsosPositivos++;
+
+        assertTrue(falsosPositivos < 2_000, "Taxa observada: " + falsosPositivos / 100_000.0);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.ResultadoDaImportacao;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Blocos minúsculos: quase toda linha cai na divisa entre dois blocos
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacao-csv;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "codechella.importacao.tamanho-do-bloco=64B",
+        "codechella.importacao.paralelismo=3"
+})
+class ImportadorDeCsvTest {
+
+    @Autowired
+    private ImportadorDeCsv importador;
+
+    @Autowired
+    private UsuarioService service;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @TempDir
+    private Path pasta;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve importar as linhas válidas e relatar o número e o motivo de cada linha rejeitada")
+    void deveImportarLinhasValidasERelatarRejeitadas() throws Exception {
+        service.cadastrarUsuario(usuario(1902));
+        StringBuilder csv = new StringBuilder("﻿cpf,nome,nascimento,email,cep,numero,complemento\n")
+                .append(cpf(1900)).append(",Ana Lima,1990-01-01,ana@example.com,54321-987,50,\"Casa 2, fundos\"\n")
+                .append("\n")
+                .append(cpf(1901)).append(",\"Silva, João \"\"Jota\"\"\",1985-05-20,joao@example.com\n")
+                .append("123.456.789-00,Maria,1985-05-20,maria@example.com\n")
+                .append(cpf(1903)).append(",Pedro,1990-13-01,pedro@example.com\n")
+                .append(cpf(1904)).append(",Rita,1990-01-01\n")
+                .append(cpf(1900)).append(",Ana Lima,1990-01-01,outra.ana@example.com\n")
+                .append(cpf(1902)).append(",Já Cadastrado,1990-01-01,ja@example.com\n")
+                .append(cpf(1905)).append(",Outra Ana,1990-01-01,ana@example.com\n");
+        IntStream.range(1910, 1960).forEach(n -> csv.append(cpf(n)).append(",Usuário ").append(n)
+                .append(",1990-01-01,usuario").append(n).append("@example.com\r\n"));
+        Path arquivo = pasta.resolve("pre-cadastros.csv");
+        Files.writeString(arquivo, csv.toString().substring(0, csv.length() - 2));
+        Path relatorio = pasta.resolve("rejeitados.csv");
+
+        ResultadoDaImportacao resultado = importador.importar(arquivo, relatorio);
+
+        assertEquals(58, resultado.linhas());
+        assertEquals(52, resultado.cadastrados());
+        assertEquals(6, resultado.rejeitados());
+        assertTrue(resultado.linhasPorSegundo() > 0);
+        assertEquals(53, repository.count());
+        assertEquals("Silva, João \"Jota\"", repository.findByCpf(cpf(1901)).orElseThrow().getNome());
+        assertEquals("Casa 2, fundos", repository.findByCpf(cpf(1900)).orElseThrow().getEndereco().getComplemento());
+        assertTrue(repository.existsByCpf(cpf(1959)));
+
+        List<String> rejeitadas = Files.readAllLines(relatorio);
+        assertEquals("linha,motivo", rejeitadas.get(0));
+        assertEquals("5,\"CPF inválido\"", rejeitadas.get(1));
+        assertEquals("6,\"Data de nascimento inválida\"", rejeitadas.get(2));
+        assertEquals("7,\"Esperadas 4 ou 7 colunas, encontradas 3\"", rejeitadas.get(3));
+        assertEquals("8,\"CPF repetido no arquivo\"", rejeitadas.get(4));
+        assertEquals("9,\"CPF já cadastrado\"", rejeitadas.get(5));
+        assertEquals("10,\"E-mail repetido no arquivo\"", rejeitadas.get(6));
+        assertEquals(7, rejeitadas.size());
+        assertEquals("ana@example.com", repository.findByCpf(cpf(1900)).orElseThrow().getEmail());
+    }
+}
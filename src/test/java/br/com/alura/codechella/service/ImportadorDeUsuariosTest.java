@@ -0,0 +1,74 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.ResultadoDoLote;
+import br.com.alura.codechella.infra.metricas.MetricasDeValidacao;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ImportadorDeUsuarios.class, DetectorDeDuplicidade.class, MetricasDeValidacao.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@TestPropertySource(properties = "codechella.cadastro-em-lote.tamanho=4")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportadorDeUsuariosTest {
+
+    @Autowired
+    private ImportadorDeUsuarios importador;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve gravar todos os itens válidos em vários lotes")
+    void deveGravarItensValidosEmLotes() {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 0; i < 10; i++) usuarios.add(usuario(i));
+
+        ResultadoDoLote resultado = importador.cadastrarEmLote(usuarios.iterator());
+
+        assertEquals(10, resultado.cadastrados());
+        assertEquals(0, resultado.rejeitados());
+        assertEquals(10, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar itens inválidos sem abortar o restante do lote")
+    void deveRejeitarItensInvalidosSemAbortarLote() {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 0; i < 6; i++) usuarios.add(usuario(i));
+        usuarios.get(1).setEmail(null);             // falha de validação
+        usuarios.get(4).setNome("x".repeat(300));   // falha na gravação: excede a coluna
+
+        ResultadoDoLote resultado = importador.cadastrarEmLote(usuarios.iterator());
+
+        assertEquals(4, resultado.cadastrados());
+        assertEquals(2, resultado.rejeitados());
+        assertEquals(1, resultado.falhas().get(0).indice());
+        assertEquals("email: must not be blank", resultado.falhas().get(0).motivo());
+        assertEquals(4, resultado.falhas().get(1).indice());
+        assertEquals(4, repository.count());
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.UsuarioDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalDeCadastrosTest {
+
+    private static final long LIMITE = 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path diretorio;
+
+    @Test
+    @DisplayName("Deve devolver ao reabrir apenas os cadastros sem conclusão, na ordem de entrada")
+    void deveRetomarPendentes() {
+        Path arquivo = diretorio.resolve("cadastros.journal");
+        var primeiro = UUID.randomUUID();
+        var segundo = UUID.randomUUID();
+        var terceiro = UUID.randomUUID();
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            assertTrue(journal.abrir().isEmpty());
+            journal.registrarEntrada(primeiro, 51L, dto(1));
+            journal.registrarEntrada(segundo, 52L, dto(2));
+            journal.registrarEntrada(terceiro, 53L, dto(3));
+            journal.registrarConclusao(List.of(segundo));
+        }
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            var pendentes = journal.abrir();
+            assertEquals(List.of(primeiro, terceiro), List.copyOf(pendentes.keySet()));
+            assertEquals(new JournalDeCadastros.Entrada(53L, dto(3)), pendentes.get(terceiro));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a última linha truncada e compactar o arquivo ao reabrir")
+    void deveIgnorarLinhaTruncada() throws Exception {
+        Path arquivo = diretorio.resolve("cadastros.journal");
+        var protocolo = UUID.randomUUID();
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            journal.abrir();
+            journal.registrarEntrada(protocolo, 1L, dto(1));
+            journal.registrarEntrada(UUID.randomUUID(), 2L, dto(2));
+            journal.registrarConclusao(List.of(protocolo));
+        }
+        Files.writeString(arquivo, "E " + UUID.randomUUID() + " {\"cpf\":\"12", StandardOpenOption.APPEND);
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            assertEquals(1, journal.abrir().size());
+        }
+        assertEquals(1, Files.readAllLines(arquivo).size());
+    }
+
+    @Test
+    @DisplayName("Deve recusar abrir um journal com linha ilegível antes da última, em vez de descartá-la")
+    void deveRecusarLinhaIlegivelNoMeio() throws Exception {
+        Path arquivo = diretorio.resolve("cadastros.journal");
+        var protocolo = UUID.randomUUID();
+        Files.writeString(arquivo, "E " + UUID.randomUUID() + " 1 {\"cpf\":\"12\n"
+                + "E " + protocolo + " 2 " + objectMapper.writeValueAsString(dto(2)) + "\n");
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            var erro = assertThrows(IllegalStateException.class, journal::abrir);
+            assertTrue(erro.getMessage().startsWith("Linha 1 "), erro.getMessage());
+        }
+        assertEquals(2, Files.readAllLines(arquivo).size());
+    }
+
+    @Test
+    @DisplayName("Deve retomar entradas gravadas antes da reserva de ids, sem id")
+    void deveRetomarEntradasSemId() throws Exception {
+        Path arquivo = diretorio.resolve("cadastros.journal");
+        var protocolo = UUID.randomUUID();
+        Files.writeString(arquivo, "E " + protocolo + " " + objectMapper.writeValueAsString(dto(1)) + "\n");
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, LIMITE)) {
+            assertEquals(new JournalDeCadastros.Entrada(null, dto(1)), journal.abrir().get(protocolo));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve compactar o journal sem reiniciar quando ele passar do limite")
+    void deveCompactarAoPassarDoLimite() throws Exception {
+        Path arquivo = diretorio.resolve("cadastros.journal");
+        var pendente = UUID.randomUUID();
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, 2048)) {
+            journal.abrir();
+            journal.registrarEntrada(pendente, 1L, dto(1));
+            for (int n = 2; n < 100; n++) {
+                var protocolo = UUID.randomUUID();
+                journal.registrarEntrada(protocolo, (long) n, dto(n));
+                journal.registrarConclusao(List.of(protocolo));
+            }
+            assertTrue(Files.size(arquivo) < 2048 + 1024, "tamanho: " + Files.size(arquivo));
+            var ultimo = UUID.randomUUID();
+            journal.registrarEntrada(ultimo, 100L, dto(100));
+        }
+
+        try (var journal = new JournalDeCadastros(arquivo, objectMapper, 2048)) {
+            assertEquals(List.of(pendente), List.copyOf(journal.abrir().keySet()).subList(0, 1));
+        }
+    }
+
+    private static UsuarioDto dto(int n) {
+        return new UsuarioDto(cpf(n), "Usuário " + n, LocalDate.of(1990, 1, 1), "usuario" + n + "@example.com",
+                new UsuarioDto.EnderecoDto("12345-678", n, null));
+    }
+}
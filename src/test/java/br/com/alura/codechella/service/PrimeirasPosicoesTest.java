@@ -0,0 +1,38 @@
+package br.com.alura.codechella.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimeirasPosicoesTest {
+
+    @Test
+    @DisplayName("Deve guardar a menor posição de cada chave, em qualquer ordem de registro")
+    void deveGuardarMenorPosicao() {
+        var primeiras = new PrimeirasPosicoes();
+
+        primeiras.registrar(7, 300);
+        primeiras.registrar(7, 100);
+        primeiras.registrar(7, 200);
+
+        assertEquals(100, primeiras.primeira(7));
+        assertEquals(-1, primeiras.primeira(8));
+    }
+
+    @Test
+    @DisplayName("Deve crescer mantendo as posições com registros simultâneos")
+    void deveCrescerComRegistrosSimultaneos() {
+        var primeiras = new PrimeirasPosicoes();
+
+        var pool = new ForkJoinPool(4);
+        pool.submit(() -> LongStream.range(0, 200_000).parallel()
+                .forEach(n -> primeiras.registrar(n % 100_000 + 1, n))).join();
+        pool.shutdown();
+
+        for (long chave = 1; chave <= 100_000; chave++) assertEquals(chave - 1, primeiras.primeira(chave));
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.dto.AlteracaoDeUsuario;
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@EnableCaching
+@Import({UsuarioServiceImpl.class, DetectorDeDuplicidade.class, UsuarioEntityMapper.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsuarioServiceImplAlteracaoTest {
+
+    @Autowired
+    private UsuarioService service;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @SpyBean
+    private DetectorDeDuplicidade detectorDeDuplicidade;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    @DisplayName("Deve alterar só os campos informados, incrementar a versão e atualizar o cache")
+    void deveAlterarParcialmente() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(0));
+        Long versaoInicial = repository.findById(cadastrado.getId()).orElseThrow().getVersao();
+
+        Usuario alterado = service.alterarUsuario(cadastrado.getId(), versaoInicial,
+                new AlteracaoDeUsuario("Nome Novo", null, null, null)).orElseThrow();
+
+        assertEquals(versaoInicial + 1, alterado.getVersao());
+        Usuario gravado = repository.findById(cadastrado.getId()).orElseThrow();
+        assertEquals("Nome Novo", gravado.getNome());
+        assertEquals(usuario(0).getEmail(), gravado.getEmail());
+        assertEquals(LocalDate.of(1990, 1, 1), gravado.getNascimento());
+        assertEquals("Nome Novo", cacheManager.getCache(UsuarioServiceImpl.CACHE_POR_ID)
+                .get(cadastrado.getId(), Usuario.class).getNome());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a alteração quando a versão esperada estiver desatualizada")
+    void deveRecusarVersaoDesatualizada() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(1));
+        Long versao = repository.findById(cadastrado.getId()).orElseThrow().getVersao();
+        service.alterarUsuario(cadastrado.getId(), versao, new AlteracaoDeUsuario("Primeira", null, null, null));
+
+        assertThrows(ConflitoDeVersaoException.class, () -> service.alterarUsuario(cadastrado.getId(), versao,
+                new AlteracaoDeUsuario("Segunda", null, null, null)));
+        assertEquals("Primeira", repository.findById(cadastrado.getId()).orElseThrow().getNome());
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar a alteração quando outra transação alterar o usuário no meio do caminho")
+    void deveRepetirAposConflito() throws Exception {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(2));
+        var primeiraTentativa = new AtomicBoolean(true);
+        // Entre a leitura e o UPDATE, outra conexão altera o usuário e incrementa a versão
+        doAnswer(invocacao -> {
+            if (primeiraTentativa.getAndSet(false)) {
+                Thread concorrente = new Thread(() -> jdbc.update(
+                        "update usuarios set nome = 'Concorrente', versao = versao + 1 where id = ?", cadastrado.getId()));
+                concorrente.start();
+                concorrente.join();
+            }
+            return invocacao.callRealMethod();
+        }).when(detectorDeDuplicidade).verificarEmail(anyString());
+
+        Usuario alterado = service.alterarUsuario(cadastrado.getId(), null,
+                new AlteracaoDeUsuario(null, null, "novo.email@example.com", null)).orElseThrow();
+
+        assertFalse(primeiraTentativa.get());
+        Usuario gravado = repository.findById(alterado.getId()).orElseThrow();
+        assertEquals("novo.email@example.com", gravado.getEmail());
+        assertEquals("Concorrente", gravado.getNome(), "A segunda tentativa parte da versão já alterada");
+        assertEquals(2L, gravado.getVersao());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar alteração inválida pelas regras do domínio sem gravar nada")
+    void deveRejeitarAlteracaoInvalida() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(3));
+
+        assertThrows(IllegalArgumentException.class, () -> service.alterarUsuario(cadastrado.getId(), null,
+                new AlteracaoDeUsuario(" ", null, null, null)));
+        assertTrue(service.alterarUsuario(-1L, null, new AlteracaoDeUsuario("X", null, null, null)).isEmpty());
+        assertEquals(usuario(3).getNome(), repository.findById(cadastrado.getId()).orElseThrow().getNome());
+    }
+
+    @Test
+    @DisplayName("Deve recusar antes do UPDATE um valor maior que a coluna, sem gravar nada")
+    void deveRecusarValorMaiorQueAColuna() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(4));
+        Long versao = repository.findById(cadastrado.getId()).orElseThrow().getVersao();
+
+        var erro = assertThrows(ConstraintViolationException.class, () -> service.alterarUsuario(cadastrado.getId(),
+                null, new AlteracaoDeUsuario("N".repeat(256), null, null, null)));
+
+        assertEquals("nome", erro.getConstraintViolations().iterator().next().getPropertyPath().toString());
+        Usuario gravado = repository.findById(cadastrado.getId()).orElseThrow();
+        assertEquals(usuario(4).getNome(), gravado.getNome());
+        assertEquals(versao, gravado.getVersao());
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@EnableCaching
+@Import({UsuarioServiceImpl.class, DetectorDeDuplicidade.class, UsuarioEntityMapper.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsuarioServiceImplCacheTest {
+
+    @Autowired
+    private UsuarioService service;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    @DisplayName("Deve servir buscas por id e CPF do cache após o cadastro, sem ir ao banco")
+    void deveServirBuscasDoCache() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(1));
+
+        // Remove direto no repositório: se a busca chegasse ao banco, não encontraria o usuário
+        repository.deleteById(cadastrado.getId());
+
+        assertEquals(cadastrado.getCpf(), service.buscarPorId(cadastrado.getId()).orElseThrow().getCpf());
+        assertEquals(cadastrado.getId(), service.buscarPorCpf(cadastrado.getCpf()).orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache buscas sem resultado")
+    void naoDeveGuardarBuscaSemResultado() {
+        String cpf = usuario(2).getCpf();
+        assertTrue(service.buscarPorCpf(cpf).isEmpty());
+
+        repository.save(usuario(2));
+
+        assertTrue(service.buscarPorCpf(cpf).isPresent(), "Usuário cadastrado depois da busca deve ser encontrado");
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.infra.replicas.ReplicasDeLeitura;
+import br.com.alura.codechella.model.Usuario;
+import br.com.alura.codechella.repository.UsuarioRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static br.com.alura.codechella.UsuariosDeTeste.cpf;
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primário e réplica são dois bancos H2 independentes, sem replicação entre eles: o que cada leitura encontra
+ * mostra em qual dos dois ela foi feita.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-primario;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "codechella.replicas.urls=" + UsuarioServiceImplReplicasTest.URL_DA_REPLICA,
+        "codechella.replicas.consulta-de-atraso=select coalesce(max(segundos), 0) from atraso_simulado",
+        "codechella.replicas.intervalo-de-verificacao=1h"
+})
+class UsuarioServiceImplReplicasTest {
+
+    static final String URL_DA_REPLICA =
+            "jdbc:h2:mem:replicas-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UsuarioService service;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @Autowired
+    private ReplicasDeLeitura replicas;
+
+    @Autowired
+    private JdbcTemplate primario;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_DA_REPLICA, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure().dataSource(replica.getDataSource()).locations("classpath:db/migration/comum").load().migrate();
+        replica.execute("create table if not exists atraso_simulado (segundos double)");
+        replica.update("delete from atraso_simulado");
+        replica.update("insert into usuarios (id, cpf, nome, nascimento, email) values (1000000, ?, 'Só na réplica', date '1990-01-01', 'replica@example.com')",
+                cpf(520));
+        replicas.verificar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from usuarios");
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve ler na réplica nas transações somente leitura e gravar o cadastro no primário")
+    void deveLerNaReplicaEGravarNoPrimario() {
+        Usuario cadastrado = service.cadastrarUsuario(usuario(521));
+
+        assertEquals(List.of(cpf(520)), cpfsListados());
+        // Fora de transação somente leitura o JdbcTemplate da aplicação usa o primário
+        assertEquals(1, primario.queryForObject("select count(*) from usuarios where cpf = ?", Long.class, cadastrado.getCpf()));
+        assertEquals(0, replica.queryForObject("select count(*) from usuarios where cpf = ?", Long.class, cadastrado.getCpf()));
+        assertEquals(1, replicas.disponiveis());
+    }
+
+    @Test
+    @DisplayName("Deve voltar a ler no primário quando a réplica passar do atraso máximo")
+    void deveLerNoPrimarioComReplicaAtrasada() {
+        service.cadastrarUsuario(usuario(522));
+        replica.update("insert into atraso_simulado values (60)");
+        replicas.verificar();
+
+        assertEquals(0, replicas.disponiveis());
+        assertEquals(List.of(cpf(522)), cpfsListados());
+    }
+
+    private List<String> cpfsListados() {
+        return service.listarPorCursor(null, 10).conteudo().stream().map(Usuario::getCpf).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.alura.codechella.service;
+
+import br.com.alura.codechella.infra.gateways.UsuarioEntityMapper;
+import br.com.alura.codechella.dto.PaginaPorCursor;
+import br.com.alura.codechella.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static br.com.alura.codechella.UsuariosDeTeste.usuario;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({UsuarioServiceImpl.class, DetectorDeDuplicidade.class, UsuarioEntityMapper.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class UsuarioServiceImplTest {
+
+    @Autowired
+    private UsuarioService service;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            service.cadastrarUsuario(usuario(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os usuários por cursor sem repetir nem pular registros")
+    void devePercorrerUsuariosPorCursor() {
+        PaginaPorCursor<Usuario> primeira = service.listarPorCursor(null, 2);
+        assertEquals(2, primeira.conteudo().size());
+        assertNotNull(primeira.proximoCursor());
+
+        PaginaPorCursor<Usuario> segunda = service.listarPorCursor(primeira.proximoCursor(), 2);
+        assertEquals(2, segunda.conteudo().size());
+        assertTrue(segunda.conteudo().get(0).getId() > primeira.conteudo().get(1).getId());
+
+        PaginaPorCursor<Usuario> terceira = service.listarPorCursor(segunda.proximoCursor(), 2);
+        assertEquals(1, terceira.conteudo().size());
+        assertNull(terceira.proximoCursor(), "A última página não deve ter próximo cursor");
+    }
+
+    @Test
+    @DisplayName("Deve listar só os campos pedidos, com o id sempre presente para o cursor")
+    void deveListarSoOsCamposPedidos() {
+        var campos = new LinkedHashSet<>(List.of("nome", "email"));
+        PaginaPorCursor<Map<String, Object>> primeira = service.listarCamposPorCursor(null, 3, campos);
+        assertEquals(3, primeira.conteudo().size());
+        assertEquals(List.of("id", "nome", "email"), List.copyOf(primeira.conteudo().get(0).keySet()));
+        assertEquals(usuario(0).getEmail(), primeira.conteudo().get(0).get("email"));
+
+        PaginaPorCursor<Map<String, Object>> segunda = service.listarCamposPorCursor(primeira.proximoCursor(), 3, campos);
+        assertEquals(2, segunda.conteudo().size());
+        assertNull(segunda.proximoCursor());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.listarCamposPorCursor(null, 3, Set.of("senha")));
+        assertEquals("Campo desconhecido: senha", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor que não foi gerado pela listagem")
+    void deveRejeitarCursorInvalido() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.listarPorCursor("não-é-um-cursor", 2));
+        assertEquals("Cursor inválido", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cadastro com CPF ou e-mail já cadastrados")
+    void deveRejeitarCadastroDuplicado() {
+        Usuario mesmoCpf = usuario(100);
+        mesmoCpf.setCpf(usuario(0).getCpf());
+        UsuarioDuplicadoException cpfDuplicado = assertThrows(UsuarioDuplicadoException.class,
+                () -> service.cadastrarUsuario(mesmoCpf));
+        assertEquals("CPF já cadastrado", cpfDuplicado.getMessage());
+
+        Usuario mesmoEmail = usuario(101);
+        mesmoEmail.setEmail(usuario(0).getEmail());
+        UsuarioDuplicadoException emailDuplicado = assertThrows(UsuarioDuplicadoException.class,
+                () -> service.cadastrarUsuario(mesmoEmail));
+        assertEquals("E-mail já cadastrado", emailDuplicado.getMessage());
+    }
+}